@@ -1,11 +1,15 @@
 package io.github.onecx.operator.db.postgresql;
 
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@RegisterForReflection
 public class DatabaseSpec {
 
     @JsonProperty("host")
@@ -29,9 +33,21 @@ public class DatabaseSpec {
     @JsonProperty("extensions")
     private List<String> extensions;
 
+    @JsonProperty("extension-versions")
+    private Map<String, String> extensionVersions;
+
     @JsonProperty("user-search-path")
     private String userSearchPath;
 
+    @JsonProperty("deletion-policy")
+    private String deletionPolicy;
+
+    @JsonProperty("template")
+    private String template;
+
+    @JsonProperty("create-strategy")
+    private String createStrategy;
+
     public String getUser() {
         return user;
     }
@@ -80,6 +96,14 @@ public class DatabaseSpec {
         this.extensions = extensions;
     }
 
+    public Map<String, String> getExtensionVersions() {
+        return extensionVersions;
+    }
+
+    public void setExtensionVersions(Map<String, String> extensionVersions) {
+        this.extensionVersions = extensionVersions;
+    }
+
     public String getUserSearchPath() {
         return userSearchPath;
     }
@@ -88,6 +112,30 @@ public class DatabaseSpec {
         this.userSearchPath = userSearchPath;
     }
 
+    public String getDeletionPolicy() {
+        return deletionPolicy;
+    }
+
+    public void setDeletionPolicy(String deletionPolicy) {
+        this.deletionPolicy = deletionPolicy;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    public String getCreateStrategy() {
+        return createStrategy;
+    }
+
+    public void setCreateStrategy(String createStrategy) {
+        this.createStrategy = createStrategy;
+    }
+
     public String getHost() {
         return host;
     }
@@ -106,7 +154,11 @@ public class DatabaseSpec {
                 ", password-key=" + passwordKey +
                 ", schema=" + schema +
                 ", extensions=" + extensions +
+                ", extension-versions=" + extensionVersions +
                 ", user-search-path='" + userSearchPath +
+                ", deletion-policy=" + deletionPolicy +
+                ", template=" + template +
+                ", create-strategy=" + createStrategy +
                 '}';
     }
 }
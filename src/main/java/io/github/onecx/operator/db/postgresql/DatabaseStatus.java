@@ -1,9 +1,13 @@
 package io.github.onecx.operator.db.postgresql;
 
+import java.util.Objects;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import io.javaoperatorsdk.operator.api.ObservedGenerationAwareStatus;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 
+@RegisterForReflection
 public class DatabaseStatus extends ObservedGenerationAwareStatus {
 
     @JsonProperty("url")
@@ -18,6 +22,9 @@ public class DatabaseStatus extends ObservedGenerationAwareStatus {
     @JsonProperty("password-secrets")
     private String passwordSecrets;
 
+    @JsonProperty("fingerprint")
+    private String fingerprint;
+
     public String getUrl() {
         return url;
     }
@@ -49,4 +56,33 @@ public class DatabaseStatus extends ObservedGenerationAwareStatus {
     public void setPasswordSecrets(String passwordSecrets) {
         this.passwordSecrets = passwordSecrets;
     }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Compares the status fields, the observed generation is not compared.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DatabaseStatus that = (DatabaseStatus) o;
+        return Objects.equals(url, that.url) && Objects.equals(status, that.status) && Objects.equals(user, that.user)
+                && Objects.equals(passwordSecrets, that.passwordSecrets) && Objects.equals(fingerprint, that.fingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(url, status, user, passwordSecrets, fingerprint);
+    }
 }
@@ -0,0 +1,112 @@
+package io.github.onecx.operator.db.postgresql;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.onecx.operator.db.postgresql.database.CatalogSnapshot;
+import io.github.onecx.operator.db.postgresql.database.DatabaseMetrics;
+import io.github.onecx.operator.db.postgresql.database.HostRegistry;
+import io.javaoperatorsdk.operator.processing.event.Event;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.AbstractEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.IndexerResourceCache;
+import io.quarkus.scheduler.Scheduled;
+
+/**
+ * Periodic drift detection of the created database resources. The sweep reloads the catalog snapshot
+ * of every host with the bulk queries over {@code pg_user} and {@code pg_database}, compares the
+ * desired state of all created database resources of the host from the primary cache and triggers a
+ * reconcile only for the drifted resources.
+ */
+@ApplicationScoped
+public class DriftSweep {
+
+    private static final Logger log = LoggerFactory.getLogger(DriftSweep.class);
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @Inject
+    DatabaseMetrics metrics;
+
+    @Inject
+    ReverifyScheduler reverifyScheduler;
+
+    @Inject
+    ShardCoordinator shardCoordinator;
+
+    private final DriftEventSource eventSource = new DriftEventSource();
+
+    private volatile IndexerResourceCache<PostgreSQLDatabase> cache;
+
+    /**
+     * Returns the event source of the drifted resources for the primary cache of the controller.
+     */
+    AbstractEventSource eventSource(IndexerResourceCache<PostgreSQLDatabase> cache) {
+        this.cache = cache;
+        return eventSource;
+    }
+
+    /**
+     * Compare the created database resources with the catalog of the hosts.
+     *
+     * @return the number of drifted database resources
+     */
+    @Scheduled(every = "${onecx.operator.db.postgresql.drift.interval:10m}", concurrentExecution = SKIP)
+    int sweep() {
+        IndexerResourceCache<PostgreSQLDatabase> tmp = cache;
+        if (tmp == null || !eventSource.isRunning()) {
+            return 0;
+        }
+        Map<String, List<PostgreSQLDatabase>> databases = tmp.list()
+                .filter(db -> db.getSpec() != null && !db.isMarkedForDeletion()
+                        && hostRegistry.contains(db.getSpec().getHost()) && shardCoordinator.owns(db))
+                .filter(db -> db.getStatus() != null
+                        && PostgreSQLReconciler.STATUS_CREATED.equals(db.getStatus().getStatus()))
+                .collect(Collectors.groupingBy(db -> db.getSpec().getHost()));
+
+        int drifted = 0;
+        for (Map.Entry<String, List<PostgreSQLDatabase>> e : databases.entrySet()) {
+            try {
+                CatalogSnapshot catalog = hostRegistry.host(e.getKey()).getCatalog();
+                if (!catalog.refresh()) {
+                    continue;
+                }
+                for (PostgreSQLDatabase database : e.getValue()) {
+                    Optional<String> reason = catalog.drift(database.getSpec());
+                    if (reason.isPresent()) {
+                        drifted++;
+                        ResourceID id = ResourceID.fromResource(database);
+                        log.info("Database '{}' namespace '{}' drifted '{}' - reconcile", id.getName(),
+                                id.getNamespace().orElse(null), reason.get());
+                        metrics.drift(e.getKey(), reason.get());
+                        reverifyScheduler.drifted(id);
+                        eventSource.fire(id);
+                    }
+                }
+            } catch (Exception ex) {
+                log.error("Error drift sweep of the database host '{}'", e.getKey(), ex);
+            }
+        }
+        log.info("Drift sweep of {} database resources, drifted: {}",
+                databases.values().stream().mapToInt(List::size).sum(), drifted);
+        return drifted;
+    }
+
+    static class DriftEventSource extends AbstractEventSource {
+
+        void fire(ResourceID id) {
+            getEventHandler().handleEvent(new Event(id));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.onecx.operator.db.postgresql;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.github.onecx.operator.db.postgresql.database.Backoff;
+import io.github.onecx.operator.db.postgresql.database.ErrorClass;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+
+/**
+ * Retry delays of the failed database resources by error class. Transient and unknown errors are
+ * retried with exponential backoff and jitter, the attempts are counted per resource until the next
+ * successful reconcile. Permanent errors are not retried.
+ */
+@ApplicationScoped
+public class ErrorBackoff {
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.retry.transient.initial", defaultValue = "PT1S")
+    Duration transientInitial;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.retry.transient.max", defaultValue = "PT1M")
+    Duration transientMax;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.retry.unknown.initial", defaultValue = "PT10S")
+    Duration unknownInitial;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.retry.unknown.max", defaultValue = "PT10M")
+    Duration unknownMax;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.retry.multiplier", defaultValue = "2")
+    double multiplier;
+
+    private final Map<ResourceID, Integer> attempts = new ConcurrentHashMap<>();
+
+    private Backoff transientBackoff;
+
+    private Backoff unknownBackoff;
+
+    @PostConstruct
+    void init() {
+        transientBackoff = new Backoff(transientInitial, transientMax, multiplier);
+        unknownBackoff = new Backoff(unknownInitial, unknownMax, multiplier);
+    }
+
+    /**
+     * Count the failed attempt of the resource and return the delay of the next attempt.
+     *
+     * @param id the resource
+     * @param errorClass the class of the error, not {@link ErrorClass#PERMANENT}
+     * @return the retry delay
+     */
+    public Duration next(ResourceID id, ErrorClass errorClass) {
+        int attempt = attempts.merge(id, 1, Integer::sum);
+        return (errorClass == ErrorClass.TRANSIENT ? transientBackoff : unknownBackoff).delay(attempt);
+    }
+
+    /**
+     * Reset the attempts of the resource.
+     */
+    public void reset(ResourceID id) {
+        attempts.remove(id);
+    }
+
+    int attempts(ResourceID id) {
+        return attempts.getOrDefault(id, 0);
+    }
+}
@@ -4,8 +4,10 @@ import io.fabric8.kubernetes.api.model.Namespaced;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.model.annotation.Group;
 import io.fabric8.kubernetes.model.annotation.Version;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 
 @Group("io.github.onecx.operator.db.postgresql")
 @Version("v1")
+@RegisterForReflection
 public class PostgreSQLDatabase extends CustomResource<DatabaseSpec, DatabaseStatus> implements Namespaced {
 }
\ No newline at end of file
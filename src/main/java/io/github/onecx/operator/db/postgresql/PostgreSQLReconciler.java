@@ -1,16 +1,30 @@
 package io.github.onecx.operator.db.postgresql;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 
-import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.fabric8.kubernetes.api.model.Secret;
-import io.github.onecx.operator.db.postgresql.database.DatabaseService;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.github.onecx.operator.db.postgresql.database.DatabaseHost;
+import io.github.onecx.operator.db.postgresql.database.DatabaseMetrics;
+import io.github.onecx.operator.db.postgresql.database.DatabaseEngine;
+import io.github.onecx.operator.db.postgresql.database.DatabaseTracing;
+import io.github.onecx.operator.db.postgresql.database.DeletionPolicy;
+import io.github.onecx.operator.db.postgresql.database.ErrorClass;
+import io.github.onecx.operator.db.postgresql.database.HostRegistry;
 import io.javaoperatorsdk.operator.api.config.informer.InformerConfiguration;
 import io.javaoperatorsdk.operator.api.reconciler.*;
 import io.javaoperatorsdk.operator.processing.event.ResourceID;
@@ -19,67 +33,339 @@ import io.javaoperatorsdk.operator.processing.event.source.SecondaryToPrimaryMap
 import io.javaoperatorsdk.operator.processing.event.source.filter.OnAddFilter;
 import io.javaoperatorsdk.operator.processing.event.source.filter.OnUpdateFilter;
 import io.javaoperatorsdk.operator.processing.event.source.informer.InformerEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.timer.TimerEventSource;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import io.quarkiverse.operatorsdk.annotations.RBACRule;
+import io.quarkus.arc.Arc;
 
+@RBACRule(apiGroups = "coordination.k8s.io", resources = "leases", verbs = { "get", "list", "create", "update",
+        "delete" })
 @ControllerConfiguration(onAddFilter = PostgreSQLReconciler.SecretAddFilter.class, onUpdateFilter = PostgreSQLReconciler.SecretUpdateFilter.class)
 public class PostgreSQLReconciler implements Reconciler<PostgreSQLDatabase>, ErrorStatusHandler<PostgreSQLDatabase>,
-        EventSourceInitializer<PostgreSQLDatabase> {
+        EventSourceInitializer<PostgreSQLDatabase>, Cleaner<PostgreSQLDatabase> {
 
     private static final Logger log = LoggerFactory.getLogger(PostgreSQLReconciler.class);
 
-    static final String HOST = ConfigProvider.getConfig().getValue("onecx.operator.db.postgresql.host", String.class);
+    static final String STATUS_CREATED = "CREATED";
+
+    static final String SECRET_INDEX = "secret-index";
+
+    private final TimerEventSource<PostgreSQLDatabase> retryTimer = new TimerEventSource<>();
+
+    @Inject
+    Instance<DatabaseEngine> databaseEngine;
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @Inject
+    DatabaseMetrics metrics;
+
+    @Inject
+    DatabaseTracing tracing;
+
+    @Inject
+    ReverifyScheduler reverifyScheduler;
+
+    @Inject
+    DriftSweep driftSweep;
+
+    @Inject
+    ErrorBackoff errorBackoff;
 
     @Inject
-    DatabaseService databaseService;
+    TeardownQueue teardownQueue;
+
+    @Inject
+    ShardCoordinator shardCoordinator;
+
+    /**
+     * Delay of the next reconcile if the database host reached the maximum concurrent reconciles.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host-busy-delay", defaultValue = "PT1S")
+    Duration hostBusyDelay;
+
+    /**
+     * Label selector of the watched secrets. Without selector all secrets are watched and cached.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.secret.label-selector")
+    Optional<String> secretLabelSelector;
+
+    /**
+     * Namespaces of the watched secrets. Without namespaces the controller namespaces are used.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.secret.namespaces")
+    Optional<Set<String>> secretNamespaces;
 
     @Override
     public Map<String, EventSource> prepareEventSources(EventSourceContext<PostgreSQLDatabase> context) {
-        final SecondaryToPrimaryMapper<Secret> webappsMatchingTomcatName = (Secret t) -> context.getPrimaryCache()
-                .list(db -> {
-                    if (db.getSpec() != null) {
-                        return db.getSpec().getPasswordSecrets().equals(t.getMetadata().getName());
-                    }
-                    return false;
-                })
+        context.getPrimaryCache().addIndexer(SECRET_INDEX, PostgreSQLReconciler::secretIndexKeys);
+
+        final SecondaryToPrimaryMapper<Secret> secretToDatabases = (Secret t) -> context.getPrimaryCache()
+                .byIndex(SECRET_INDEX, secretIndexKey(t.getMetadata().getName(), t.getMetadata().getNamespace()))
+                .stream()
                 .map(ResourceID::fromResource)
                 .collect(Collectors.toSet());
 
-        InformerConfiguration<Secret> configuration = InformerConfiguration.from(Secret.class, context)
-                .withSecondaryToPrimaryMapper(webappsMatchingTomcatName)
+        InformerConfiguration.InformerConfigurationBuilder<Secret> builder = InformerConfiguration.from(Secret.class, context);
+        secretLabelSelector.ifPresent(builder::withLabelSelector);
+        secretNamespaces.ifPresent(builder::withNamespaces);
+
+        InformerConfiguration<Secret> configuration = builder
+                .withSecondaryToPrimaryMapper(secretToDatabases)
                 .withPrimaryToSecondaryMapper(
-                        (PostgreSQLDatabase primary) -> Set.of(new ResourceID(primary.getSpec().getPasswordSecrets(),
-                                primary.getMetadata().getNamespace())))
+                        (PostgreSQLDatabase primary) -> {
+                            if (primary.getSpec() == null || primary.getSpec().getPasswordSecrets() == null) {
+                                return Set.of();
+                            }
+                            return Set.of(new ResourceID(primary.getSpec().getPasswordSecrets(),
+                                    primary.getMetadata().getNamespace()));
+                        })
                 .build();
         return EventSourceInitializer
-                .nameEventSources(new InformerEventSource<>(configuration, context));
+                .nameEventSources(new InformerEventSource<>(configuration, context),
+                        driftSweep.eventSource(context.getPrimaryCache()),
+                        teardownQueue.eventSource(context.getPrimaryCache()),
+                        shardCoordinator.eventSource(context.getPrimaryCache()), retryTimer);
+    }
+
+    /**
+     * Index of the database resources by password secret name and namespace.
+     */
+    static List<String> secretIndexKeys(PostgreSQLDatabase database) {
+        if (database.getSpec() == null || database.getSpec().getPasswordSecrets() == null) {
+            return List.of();
+        }
+        return List.of(secretIndexKey(database.getSpec().getPasswordSecrets(), database.getMetadata().getNamespace()));
+    }
+
+    static String secretIndexKey(String name, String namespace) {
+        return name + "#" + namespace;
     }
 
     @Override
     public UpdateControl<PostgreSQLDatabase> reconcile(PostgreSQLDatabase database, Context<PostgreSQLDatabase> context)
             throws Exception {
 
+        if (!shardCoordinator.owns(database)) {
+            log.debug("Database '{}' namespace '{}' not in the shard of this replica - skip reconcile",
+                    database.getMetadata().getName(), database.getMetadata().getNamespace());
+            return UpdateControl.noUpdate();
+        }
+
         Optional<Secret> secret = context.getSecondaryResource(Secret.class);
         if (secret.isPresent()) {
 
             String name = database.getMetadata().getName();
             String namespace = database.getMetadata().getNamespace();
-            String uuid = UUID.randomUUID().toString();
-
-            log.info("[{}] Reconcile postgresql database: {} namespace: {}", uuid, name, namespace);
-            try {
-                byte[] password = createRequestData(database.getSpec(), secret.get());
-                databaseService.update(uuid, database.getSpec(), password);
-            } catch (Exception te) {
-                throw new ReconcileException(uuid, te);
+
+            String fingerprint = createFingerprint(database.getSpec(), secret.get());
+            boolean reverify = isUnchanged(database, fingerprint);
+            if (reverify) {
+                ResourceID id = ResourceID.fromResource(database);
+                if (!reverifyScheduler.isDue(id)) {
+                    log.debug("Database '{}' namespace '{}' unchanged - skip reconcile", name, namespace);
+                    metrics.reconcile(database.getSpec().getHost(), DatabaseMetrics.OUTCOME_UNCHANGED);
+                    return UpdateControl.noUpdate();
+                }
+                Duration delay = reverifyScheduler.acquire(id);
+                if (!delay.isZero()) {
+                    log.debug("Database '{}' namespace '{}' unchanged - re-verify in {} ms", name, namespace,
+                            delay.toMillis());
+                    metrics.reconcile(database.getSpec().getHost(), DatabaseMetrics.OUTCOME_DEFERRED);
+                    return UpdateControl.<PostgreSQLDatabase> noUpdate().rescheduleAfter(delay);
+                }
+                log.debug("Database '{}' namespace '{}' unchanged - re-verify", name, namespace);
             }
 
-            updateStatusPojo(database);
-            log.info("Database '{}' reconciled - updating status", database.getMetadata().getName());
-            return UpdateControl.updateStatus(database);
+            Span span = tracing.startReconcile(database.getSpec().getHost(), name, namespace);
+            try (Scope scope = span.makeCurrent()) {
+                return reconcile(DatabaseTracing.reconcileId(span), database, secret.get(), fingerprint, reverify);
+            } catch (Exception ex) {
+                DatabaseTracing.error(span, ex);
+                throw ex;
+            } finally {
+                span.end();
+            }
         }
         return UpdateControl.noUpdate();
     }
 
-    private static byte[] createRequestData(DatabaseSpec spec, Secret secret) throws MissingMandatoryKeyException {
+    /**
+     * Reconcile the database resource. The re-verify of an unchanged resource drops the cached schemas and
+     * extensions of the database first, out-of-band dropped objects are created again.
+     */
+    private UpdateControl<PostgreSQLDatabase> reconcile(String uuid, PostgreSQLDatabase database, Secret secret,
+            String fingerprint, boolean reverify) throws ReconcileException {
+
+        String name = database.getMetadata().getName();
+        String namespace = database.getMetadata().getNamespace();
+
+        DatabaseHost host;
+        try {
+            host = hostRegistry.host(database.getSpec().getHost());
+        } catch (Exception te) {
+            throw new ReconcileException(uuid, te);
+        }
+        if (!host.tryAcquireReconcile()) {
+            log.info("Database host '{}' busy - reschedule database '{}' namespace '{}'", host.getName(), name,
+                    namespace);
+            metrics.reconcile(host.getName(), DatabaseMetrics.OUTCOME_BUSY);
+            return UpdateControl.<PostgreSQLDatabase> noUpdate().rescheduleAfter(hostBusyDelay);
+        }
+        if (reverify) {
+            host.getCatalog().invalidate(database.getSpec().getName());
+        }
+
+        log.info("[{}] Reconcile postgresql database: {} namespace: {} host: {}", uuid, name, namespace,
+                host.getName());
+        try {
+            byte[] password = traced("secret-decode", () -> createRequestData(database.getSpec(), secret));
+            databaseEngine.get().update(uuid, host, database.getSpec(), password);
+        } catch (Exception te) {
+            throw new ReconcileException(uuid, te);
+        } finally {
+            host.releaseReconcile();
+        }
+
+        ResourceID id = ResourceID.fromResource(database);
+        metrics.reconcile(host.getName(), DatabaseMetrics.OUTCOME_SUCCESS);
+        reverifyScheduler.verified(id);
+        errorBackoff.reset(id);
+        retryTimer.cancelOnceSchedule(id);
+        DatabaseStatus status = traced("status", () -> createStatus(database.getSpec(), fingerprint));
+        if (isStatusUnchanged(database, status)) {
+            log.debug("Database '{}' reconciled - status unchanged", name);
+            return UpdateControl.noUpdate();
+        }
+        database.setStatus(status);
+        log.info("Database '{}' reconciled - patching status", name);
+        return UpdateControl.patchStatus(database);
+    }
+
+    /**
+     * Submit the teardown of the deleted database resource to the teardown queue. The finalizer is removed
+     * after the teardown finished, a failed teardown is submitted again after the backoff delay. After a
+     * permanent error or {@code teardown.max-attempts} failed teardowns the error is written to the status
+     * and the finalizer is kept until the resource changes, for example to {@code deletion-policy: retain}.
+     */
+    @Override
+    public DeleteControl cleanup(PostgreSQLDatabase database, Context<PostgreSQLDatabase> context) {
+        ResourceID id = ResourceID.fromResource(database);
+        retryTimer.cancelOnceSchedule(id);
+        reverifyScheduler.forget(id);
+        if (!shardCoordinator.owns(database)) {
+            // the replica of the shard removes the finalizer
+            return DeleteControl.noFinalizerRemoval();
+        }
+        String host = database.getSpec() != null ? database.getSpec().getHost() : null;
+
+        DeletionPolicy policy;
+        try {
+            policy = teardownQueue.policy(database.getSpec());
+        } catch (IllegalArgumentException ex) {
+            log.warn("Database '{}' namespace '{}' - {}, retain the database", id.getName(),
+                    id.getNamespace().orElse(null), ex.getMessage());
+            policy = DeletionPolicy.RETAIN;
+        }
+        if (policy != DeletionPolicy.RETAIN && (database.getSpec() == null || host == null
+                || database.getSpec().getName() == null || database.getSpec().getUser() == null)) {
+            log.warn("Database '{}' namespace '{}' - no host, database or user in the spec, nothing to drop",
+                    id.getName(), id.getNamespace().orElse(null));
+            policy = DeletionPolicy.RETAIN;
+        }
+        if (policy != DeletionPolicy.RETAIN && teardownQueue.shared(database, DatabaseSpec::getName)) {
+            log.warn("Database '{}' namespace '{}' - database '{}' is used by another resource, retain the database",
+                    id.getName(), id.getNamespace().orElse(null), database.getSpec().getName());
+            policy = DeletionPolicy.RETAIN;
+        }
+        if (policy == DeletionPolicy.RETAIN || !hostRegistry.contains(host)) {
+            log.info("Database '{}' namespace '{}' deleted - retain the database", id.getName(),
+                    id.getNamespace().orElse(null));
+            metrics.teardown(host, DeletionPolicy.RETAIN, DatabaseMetrics.OUTCOME_SUCCESS);
+            errorBackoff.reset(id);
+            teardownQueue.forget(id);
+            return DeleteControl.defaultDelete();
+        }
+        if (teardownQueue.parked(database)) {
+            log.debug("Database '{}' namespace '{}' teardown parked - waiting for a change of the resource",
+                    id.getName(), id.getNamespace().orElse(null));
+            return DeleteControl.noFinalizerRemoval();
+        }
+
+        TeardownQueue.Task task;
+        try {
+            task = teardownQueue.submit(database, hostRegistry.host(host), policy);
+        } catch (HostRegistry.UnknownHostException ex) {
+            throw new IllegalStateException(ex);
+        }
+        if (!task.isDone()) {
+            // the finished teardown triggers the cleanup again
+            return DeleteControl.noFinalizerRemoval();
+        }
+        teardownQueue.remove(id);
+        if (task.getError() == null) {
+            log.info("Database '{}' namespace '{}' teardown finished - remove finalizer", id.getName(),
+                    id.getNamespace().orElse(null));
+            errorBackoff.reset(id);
+            teardownQueue.forget(id);
+            return DeleteControl.defaultDelete();
+        }
+        ErrorClass errorClass = ErrorClass.classify(task.getError());
+        if (teardownQueue.exhausted(errorClass, errorBackoff.attempts(id) + 1)) {
+            log.error("Database '{}' namespace '{}' teardown failed, error class '{}' - keep the finalizer until"
+                    + " the resource changes", id.getName(), id.getNamespace().orElse(null), errorClass.tag());
+            errorBackoff.reset(id);
+            teardownQueue.park(database);
+            patchTeardownError(database, context, task.getError());
+            return DeleteControl.noFinalizerRemoval();
+        }
+        Duration delay = errorBackoff.next(id,
+                errorClass == ErrorClass.TRANSIENT ? ErrorClass.TRANSIENT : ErrorClass.UNKNOWN);
+        log.info("Database '{}' namespace '{}' teardown failed - retry in {} ms", id.getName(),
+                id.getNamespace().orElse(null), delay.toMillis());
+        return DeleteControl.noFinalizerRemoval().rescheduleAfter(delay.toMillis());
+    }
+
+    /**
+     * Write the error of the parked teardown to the status, the cleanup can not return a status update.
+     */
+    private static void patchTeardownError(PostgreSQLDatabase database, Context<PostgreSQLDatabase> context,
+            Exception error) {
+        DatabaseStatus status = new DatabaseStatus();
+        status.setStatus("ERROR: teardown failed: " + error.getMessage());
+        database.setStatus(status);
+        try {
+            context.getClient().resource(database).patchStatus();
+        } catch (KubernetesClientException ex) {
+            log.warn("Database '{}' namespace '{}' - patch of the teardown error status failed: {}",
+                    database.getMetadata().getName(), database.getMetadata().getNamespace(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Execute the task in a child span of the reconcile span.
+     */
+    private <T, E extends Exception> T traced(String name, TracedTask<T, E> task) throws E {
+        Span span = tracing.start(name);
+        try (Scope scope = span.makeCurrent()) {
+            return task.run();
+        } catch (Exception ex) {
+            DatabaseTracing.error(span, ex);
+            throw ex;
+        } finally {
+            span.end();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TracedTask<T, E extends Exception> {
+
+        T run() throws E;
+    }
+
+    static byte[] createRequestData(DatabaseSpec spec, Secret secret) throws MissingMandatoryKeyException {
         Map<String, String> data = secret.getData();
 
         String key = spec.getPasswordKey();
@@ -96,6 +382,43 @@ public class PostgreSQLReconciler implements Reconciler<PostgreSQLDatabase>, Err
         return Base64.getDecoder().decode(value);
     }
 
+    private static boolean isUnchanged(PostgreSQLDatabase database, String fingerprint) {
+        DatabaseStatus status = database.getStatus();
+        return status != null && STATUS_CREATED.equals(status.getStatus()) && fingerprint.equals(status.getFingerprint());
+    }
+
+    /**
+     * Creates the fingerprint of the effective spec and the secret version. The password itself is not
+     * part of the fingerprint, any change of the secret data changes the secret resource version.
+     */
+    static String createFingerprint(DatabaseSpec spec, Secret secret) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Stream.of(spec.getHost(), spec.getName(), spec.getUser(), spec.getSchema(), spec.getUserSearchPath(),
+                    spec.getPasswordSecrets(), spec.getPasswordKey(), extensions(spec),
+                    secret.getMetadata().getUid(), secret.getMetadata().getResourceVersion())
+                    .map(String::valueOf)
+                    .forEach(value -> {
+                        digest.update(value.getBytes(StandardCharsets.UTF_8));
+                        digest.update((byte) 0);
+                    });
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Returns the extensions with the pinned versions, without pinned versions the fingerprint of
+     * existing resources is unchanged.
+     */
+    private static String extensions(DatabaseSpec spec) {
+        if (spec.getExtensionVersions() == null || spec.getExtensionVersions().isEmpty()) {
+            return String.valueOf(spec.getExtensions());
+        }
+        return spec.getExtensions() + "@" + new TreeMap<>(spec.getExtensionVersions());
+    }
+
     public static class MissingMandatoryKeyException extends Exception {
 
         public MissingMandatoryKeyException(String msg) {
@@ -122,45 +445,118 @@ public class PostgreSQLReconciler implements Reconciler<PostgreSQLDatabase>, Err
             uuid = re.uuid;
         }
 
-        log.error("[{}] Error reconcile resource", uuid, e);
+        ErrorClass errorClass = classify(e);
+        log.error("[{}] Error reconcile resource, error class '{}'", uuid, errorClass.tag(), e);
+        metrics.error(resource.getSpec() != null ? resource.getSpec().getHost() : null, e, errorClass);
         DatabaseStatus status = new DatabaseStatus();
         status.setUrl(null);
         status.setUser(null);
         status.setPasswordSecrets(null);
         status.setStatus("ERROR: " + e.getMessage());
-        resource.setStatus(status);
-        return ErrorStatusUpdateControl.updateStatus(resource);
+
+        ErrorStatusUpdateControl<PostgreSQLDatabase> result;
+        if (isStatusUnchanged(resource, status)) {
+            // same error on retry
+            result = ErrorStatusUpdateControl.noStatusUpdate();
+        } else {
+            resource.setStatus(status);
+            result = ErrorStatusUpdateControl.patchStatus(resource);
+        }
+
+        if (resource.getMetadata() == null || !retryTimer.isRunning()) {
+            return result;
+        }
+        ResourceID id = ResourceID.fromResource(resource);
+        if (errorClass == ErrorClass.PERMANENT) {
+            // park until the next event of the resource or the secret
+            errorBackoff.reset(id);
+            log.info("[{}] Permanent error - retry after the database resource or secret changed", uuid);
+        } else {
+            Duration delay = errorBackoff.next(id, errorClass);
+            retryTimer.scheduleOnce(id, delay.toMillis());
+            log.info("[{}] {} error - retry in {} ms", uuid, errorClass.tag(), delay.toMillis());
+        }
+        // the retry is scheduled by the retry timer
+        return result.withNoRetry();
     }
 
-    private void updateStatusPojo(PostgreSQLDatabase database) {
+    /**
+     * Returns the error class, a missing secret key is permanent until the secret changes.
+     */
+    static ErrorClass classify(Exception e) {
+        Throwable cause = e instanceof ReconcileException ? e.getCause() : e;
+        if (cause instanceof MissingMandatoryKeyException) {
+            return ErrorClass.PERMANENT;
+        }
+        return ErrorClass.classify(cause);
+    }
+
+    static DatabaseStatus createStatus(DatabaseSpec spec, String fingerprint) {
         DatabaseStatus status = new DatabaseStatus();
-        DatabaseSpec spec = database.getSpec();
         status.setUrl(spec.getName());
         status.setUser(spec.getUser());
         status.setPasswordSecrets(spec.getPasswordSecrets());
-        status.setStatus("CREATED");
-        database.setStatus(status);
+        status.setFingerprint(fingerprint);
+        status.setStatus(STATUS_CREATED);
+        return status;
+    }
+
+    /**
+     * Returns {@code true} if the current status equals the new status and observed the current
+     * generation, in this case the status is not written.
+     */
+    static boolean isStatusUnchanged(PostgreSQLDatabase database, DatabaseStatus status) {
+        DatabaseStatus current = database.getStatus();
+        return status.equals(current)
+                && Objects.equals(current.getObservedGeneration(), database.getMetadata().getGeneration());
     }
 
     public static class SecretAddFilter implements OnAddFilter<PostgreSQLDatabase> {
 
+        private final Predicate<String> registeredHost;
+
+        public SecretAddFilter() {
+            this(PostgreSQLReconciler::isRegisteredHost);
+        }
+
+        SecretAddFilter(Predicate<String> registeredHost) {
+            this.registeredHost = registeredHost;
+        }
+
         @Override
         public boolean accept(PostgreSQLDatabase resource) {
             if (resource.getSpec() == null) {
                 return false;
             }
-            return HOST.equals(resource.getSpec().getHost());
+            return registeredHost.test(resource.getSpec().getHost());
         }
     }
 
     public static class SecretUpdateFilter implements OnUpdateFilter<PostgreSQLDatabase> {
 
+        private final Predicate<String> registeredHost;
+
+        public SecretUpdateFilter() {
+            this(PostgreSQLReconciler::isRegisteredHost);
+        }
+
+        SecretUpdateFilter(Predicate<String> registeredHost) {
+            this.registeredHost = registeredHost;
+        }
+
         @Override
         public boolean accept(PostgreSQLDatabase newResource, PostgreSQLDatabase oldResource) {
             if (newResource.getSpec() == null) {
                 return false;
             }
-            return HOST.equals(newResource.getSpec().getHost());
+            return registeredHost.test(newResource.getSpec().getHost());
         }
     }
+
+    /**
+     * The filters are created by the operator SDK, the host registry is looked up in the container.
+     */
+    static boolean isRegisteredHost(String host) {
+        return Arc.container().instance(HostRegistry.class).get().contains(host);
+    }
 }
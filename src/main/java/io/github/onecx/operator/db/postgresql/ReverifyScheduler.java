@@ -0,0 +1,127 @@
+package io.github.onecx.operator.db.postgresql;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.quarkus.scheduler.Scheduled;
+
+/**
+ * Schedules the re-verification of unchanged database resources. New and changed resources are
+ * reconciled immediately, unchanged resources which were not verified within the interval get a
+ * verification slot at the configured rate. After an operator restart all unchanged resources are
+ * re-verified at this trickle rate instead of all at once. Resources found by the {@link DriftSweep}
+ * are verified immediately.
+ */
+@ApplicationScoped
+public class ReverifyScheduler {
+
+    /**
+     * Re-verifications per second, {@code 0} disables the re-verification of unchanged resources.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.reverify.rate", defaultValue = "2")
+    double rate;
+
+    /**
+     * Minimum time between two verifications of the same resource.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.reverify.interval", defaultValue = "PT1H")
+    Duration interval;
+
+    private final Map<ResourceID, Long> verified = new ConcurrentHashMap<>();
+
+    private final Map<ResourceID, Long> slots = new HashMap<>();
+
+    private final Set<ResourceID> drifted = ConcurrentHashMap.newKeySet();
+
+    private long nextSlot = System.nanoTime();
+
+    /**
+     * Returns {@code true} if the unchanged resource should be verified again.
+     */
+    public boolean isDue(ResourceID id) {
+        if (drifted.contains(id)) {
+            return true;
+        }
+        if (rate <= 0) {
+            return false;
+        }
+        Long last = verified.get(id);
+        return last == null || System.nanoTime() - last >= interval.toNanos();
+    }
+
+    /**
+     * Reserve the verification slot of the resource. The slot is kept until the resource is verified.
+     *
+     * @param id the resource
+     * @return {@link Duration#ZERO} if the verification can start now, otherwise the time until the slot
+     */
+    public Duration acquire(ResourceID id) {
+        if (drifted.contains(id)) {
+            return Duration.ZERO;
+        }
+        long now = System.nanoTime();
+        synchronized (slots) {
+            Long slot = slots.get(id);
+            if (slot == null) {
+                slot = Math.max(now, nextSlot);
+                nextSlot = slot + (long) (1_000_000_000L / rate);
+                slots.put(id, slot);
+            }
+            return slot - now <= 0 ? Duration.ZERO : Duration.ofNanos(slot - now);
+        }
+    }
+
+    /**
+     * Mark the resource as verified and release the verification slot.
+     */
+    public void verified(ResourceID id) {
+        verified.put(id, System.nanoTime());
+        drifted.remove(id);
+        synchronized (slots) {
+            slots.remove(id);
+        }
+    }
+
+    /**
+     * Mark the resource as drifted, the next reconcile verifies it without waiting for a slot.
+     */
+    public void drifted(ResourceID id) {
+        drifted.add(id);
+    }
+
+    /**
+     * Remove the verification state of the deleted resource.
+     */
+    public void forget(ResourceID id) {
+        verified.remove(id);
+        drifted.remove(id);
+        synchronized (slots) {
+            slots.remove(id);
+        }
+    }
+
+    /**
+     * Remove the verifications older than the interval, these resources are due anyway.
+     */
+    @Scheduled(every = "${onecx.operator.db.postgresql.reverify.interval:PT1H}", concurrentExecution = SKIP)
+    void prune() {
+        long limit = System.nanoTime() - interval.toNanos();
+        verified.values().removeIf(last -> last - limit < 0);
+    }
+
+    int pending() {
+        synchronized (slots) {
+            return slots.size();
+        }
+    }
+}
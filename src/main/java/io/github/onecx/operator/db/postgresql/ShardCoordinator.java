@@ -0,0 +1,260 @@
+package io.github.onecx.operator.db.postgresql;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseSpec;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.javaoperatorsdk.operator.processing.event.Event;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.AbstractEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.IndexerResourceCache;
+import io.quarkus.scheduler.Scheduled;
+
+/**
+ * Shards the database resources over the active operator replicas. Every replica renews its own
+ * Kubernetes {@code Lease}, the replicas with a valid lease are the members of a consistent hash ring.
+ * A replica reconciles only the resources of its shard, the shard key is the namespace and name of the
+ * resource or the {@code spec.host}. When the members change, the resources which moved to this replica
+ * are reconciled. A replica which can not renew its lease within the lease duration owns no resources,
+ * the other replicas took over its shard.
+ */
+@ApplicationScoped
+public class ShardCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    static final String LABEL = "onecx.io/db-postgresql-operator-shard";
+
+    static final String LEASE_PREFIX = "onecx-db-postgresql-operator-shard-";
+
+    static final String KEY_RESOURCE = "resource";
+
+    static final String KEY_HOST = "host";
+
+    @Inject
+    KubernetesClient client;
+
+    /**
+     * Without sharding every replica reconciles all resources.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.sharding.enabled", defaultValue = "false")
+    boolean enabled;
+
+    /**
+     * Shard key {@code resource} (namespace and name) or {@code host} ({@code spec.host}).
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.sharding.key", defaultValue = KEY_RESOURCE)
+    String key;
+
+    /**
+     * Identity of the replica, default is the pod name.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.sharding.identity")
+    Optional<String> identity;
+
+    /**
+     * Namespace of the leases, default is the namespace of the client.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.sharding.namespace")
+    Optional<String> namespace;
+
+    /**
+     * Time after which a replica without lease renewal leaves the ring.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.sharding.lease-duration", defaultValue = "PT30S")
+    Duration leaseDuration;
+
+    private final ShardEventSource eventSource = new ShardEventSource();
+
+    private volatile ShardRing ring = new ShardRing(Set.of());
+
+    private volatile IndexerResourceCache<PostgreSQLDatabase> cache;
+
+    private String member;
+
+    /**
+     * Time of the last successful renewal of the lease of this replica.
+     */
+    private volatile ZonedDateTime renewed;
+
+    /**
+     * The coordinator is created with the event sources of the controller, the ring is built before the
+     * first reconcile. Otherwise this replica owns nothing until the first scheduled renewal.
+     */
+    @PostConstruct
+    void init() {
+        if (!KEY_RESOURCE.equals(key) && !KEY_HOST.equals(key)) {
+            throw new IllegalArgumentException("Unknown shard key '" + key + "', expected resource or host");
+        }
+        member = identity.filter(s -> !s.isBlank())
+                .or(() -> Optional.ofNullable(System.getenv("HOSTNAME")))
+                .orElseGet(() -> UUID.randomUUID().toString());
+        renew();
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (!enabled) {
+            return;
+        }
+        // leave the ring immediately, the other replicas take over on their next renewal
+        try {
+            client.leases().inNamespace(leaseNamespace()).withName(LEASE_PREFIX + member).delete();
+        } catch (Exception ex) {
+            log.warn("Error delete shard lease of member '{}': {}", member, ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns the event source of the resources which moved to this replica.
+     */
+    AbstractEventSource eventSource(IndexerResourceCache<PostgreSQLDatabase> cache) {
+        this.cache = cache;
+        return eventSource;
+    }
+
+    /**
+     * Returns {@code true} if this replica reconciles the resource.
+     */
+    boolean owns(PostgreSQLDatabase database) {
+        if (!enabled) {
+            return true;
+        }
+        return member.equals(ring.owner(shardKey(database)));
+    }
+
+    String shardKey(PostgreSQLDatabase database) {
+        if (KEY_HOST.equals(key)) {
+            return database.getSpec() != null ? String.valueOf(database.getSpec().getHost()) : "";
+        }
+        return database.getMetadata().getNamespace() + "/" + database.getMetadata().getName();
+    }
+
+    /**
+     * Renew the lease of this replica and rebuild the ring from the valid leases.
+     */
+    @Scheduled(every = "${onecx.operator.db.postgresql.sharding.renew-interval:10s}", concurrentExecution = SKIP)
+    void renew() {
+        if (!enabled) {
+            return;
+        }
+        String ns = leaseNamespace();
+        ZonedDateTime now = ZonedDateTime.now();
+        Set<String> members;
+        try {
+            renewLease(ns, now);
+            renewed = now;
+            members = members(client.leases().inNamespace(ns).withLabel(LABEL).list().getItems(), now);
+        } catch (Exception ex) {
+            log.error("Error renew shard lease of member '{}' namespace '{}'", member, ns, ex);
+            if (!expired(renewed, now, leaseDuration) || ring.members().isEmpty()) {
+                return;
+            }
+            // the other replicas removed this replica from their ring and took over its shard
+            log.warn("Shard lease of member '{}' expired - release the shard", member);
+            members = Set.of();
+        }
+        ShardRing previous = ring;
+        if (previous.members().equals(members)) {
+            return;
+        }
+        ShardRing next = new ShardRing(members);
+        ring = next;
+        log.info("Shard members changed from {} to {}", previous.members(), members);
+        rebalanced(previous, next);
+    }
+
+    /**
+     * Returns {@code true} if the lease which was renewed at the time is expired.
+     *
+     * @param renewed the last renewal or {@code null} if the lease was never renewed
+     */
+    static boolean expired(ZonedDateTime renewed, ZonedDateTime now, Duration leaseDuration) {
+        return renewed == null || !renewed.plus(leaseDuration).isAfter(now);
+    }
+
+    /**
+     * Reconcile the resources which moved to this replica.
+     */
+    private void rebalanced(ShardRing previous, ShardRing next) {
+        IndexerResourceCache<PostgreSQLDatabase> tmp = cache;
+        if (tmp == null || !eventSource.isRunning()) {
+            return;
+        }
+        Collection<ResourceID> moved = tmp.list()
+                .filter(db -> {
+                    String shardKey = shardKey(db);
+                    return member.equals(next.owner(shardKey)) && !member.equals(previous.owner(shardKey));
+                })
+                .map(ResourceID::fromResource)
+                .toList();
+        moved.forEach(eventSource::fire);
+        log.info("Shard of member '{}' rebalanced, moved database resources: {}", member, moved.size());
+    }
+
+    private void renewLease(String ns, ZonedDateTime now) {
+        String name = LEASE_PREFIX + member;
+        Lease lease = client.leases().inNamespace(ns).withName(name).get();
+        if (lease == null) {
+            lease = new Lease();
+            lease.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace(ns)
+                    .withLabels(Map.of(LABEL, "member")).build());
+            lease.setSpec(new LeaseSpec(now, member, (int) leaseDuration.toSeconds(), 0, now));
+            client.leases().inNamespace(ns).resource(lease).create();
+            log.info("Shard member '{}' joined, lease '{}' namespace '{}'", member, name, ns);
+            return;
+        }
+        lease.getSpec().setHolderIdentity(member);
+        lease.getSpec().setLeaseDurationSeconds((int) leaseDuration.toSeconds());
+        lease.getSpec().setRenewTime(now);
+        client.leases().inNamespace(ns).resource(lease).update();
+    }
+
+    /**
+     * Returns the holders of the leases which were renewed within their lease duration.
+     */
+    static Set<String> members(Collection<Lease> leases, ZonedDateTime now) {
+        return leases.stream()
+                .map(Lease::getSpec)
+                .filter(spec -> spec != null && spec.getHolderIdentity() != null && spec.getRenewTime() != null
+                        && spec.getLeaseDurationSeconds() != null)
+                .filter(spec -> spec.getRenewTime().plusSeconds(spec.getLeaseDurationSeconds()).isAfter(now))
+                .map(LeaseSpec::getHolderIdentity)
+                .collect(Collectors.toSet());
+    }
+
+    String member() {
+        return member;
+    }
+
+    private String leaseNamespace() {
+        return namespace.orElseGet(client::getNamespace);
+    }
+
+    static class ShardEventSource extends AbstractEventSource {
+
+        void fire(ResourceID id) {
+            getEventHandler().handleEvent(new Event(id));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.onecx.operator.db.postgresql;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent hash ring of the operator replicas. Every member gets virtual nodes on the ring, a key is
+ * owned by the member of the next node. A joining or leaving member moves only the keys of its own
+ * nodes.
+ */
+final class ShardRing {
+
+    static final int VIRTUAL_NODES = 128;
+
+    private final TreeMap<Long, String> nodes = new TreeMap<>();
+
+    private final SortedSet<String> members;
+
+    ShardRing(Collection<String> members) {
+        this.members = new TreeSet<>(members);
+        for (String member : this.members) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                nodes.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * Returns the owner of the key or {@code null} if the ring has no members.
+     */
+    String owner(String key) {
+        if (nodes.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> e = nodes.ceilingEntry(hash(key));
+        return e != null ? e.getValue() : nodes.firstEntry().getValue();
+    }
+
+    Set<String> members() {
+        return members;
+    }
+
+    static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package io.github.onecx.operator.db.postgresql;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.onecx.operator.db.postgresql.database.DatabaseHost;
+import io.github.onecx.operator.db.postgresql.database.DatabaseMetrics;
+import io.github.onecx.operator.db.postgresql.database.DatabaseTeardown;
+import io.github.onecx.operator.db.postgresql.database.DatabaseTracing;
+import io.github.onecx.operator.db.postgresql.database.DeletionPolicy;
+import io.github.onecx.operator.db.postgresql.database.ErrorClass;
+import io.github.onecx.operator.db.postgresql.database.HostsConfig;
+import io.javaoperatorsdk.operator.processing.event.Event;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.AbstractEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.IndexerResourceCache;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+
+/**
+ * Background queue of the database teardowns of the deleted database resources. The teardowns are
+ * executed by own threads of every host with the configured concurrency, a slow teardown of one host does
+ * not block the teardowns of the other hosts. The reconcile threads only submit the teardown and keep the
+ * finalizer. A finished teardown triggers the cleanup of the resource again,
+ * which removes the finalizer. A teardown which failed with a permanent error or too often is parked with
+ * the finalizer until the resource changes.
+ */
+@ApplicationScoped
+public class TeardownQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TeardownQueue.class);
+
+    @Inject
+    DatabaseTeardown teardown;
+
+    @Inject
+    DatabaseTracing tracing;
+
+    @Inject
+    DatabaseMetrics metrics;
+
+    @Inject
+    HostsConfig hostsConfig;
+
+    /**
+     * Maximum concurrent teardowns per host.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.teardown.max-concurrent", defaultValue = "1")
+    int maxConcurrent;
+
+    /**
+     * Deletion policy of the database resources without {@code spec.deletion-policy}.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.teardown.policy", defaultValue = "retain")
+    String defaultPolicy;
+
+    /**
+     * Failed teardowns of a resource after which the teardown is parked.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.teardown.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    private final TeardownEventSource eventSource = new TeardownEventSource();
+
+    private final Map<ResourceID, Task> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * Generation of the parked resources.
+     */
+    private final Map<ResourceID, Long> parked = new ConcurrentHashMap<>();
+
+    /**
+     * Teardown threads of the hosts, created on the first teardown of the host.
+     */
+    private final Map<String, ExecutorService> executors = new ConcurrentHashMap<>();
+
+    private DeletionPolicy policy;
+
+    private volatile IndexerResourceCache<PostgreSQLDatabase> cache;
+
+    @PostConstruct
+    void init() {
+        policy = DeletionPolicy.of(defaultPolicy);
+    }
+
+    @PreDestroy
+    void destroy() {
+        executors.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    /**
+     * Returns the event source of the finished teardowns for the primary cache of the controller.
+     */
+    AbstractEventSource eventSource(IndexerResourceCache<PostgreSQLDatabase> cache) {
+        this.cache = cache;
+        return eventSource;
+    }
+
+    /**
+     * Returns the deletion policy of the spec or the configured default policy.
+     *
+     * @throws IllegalArgumentException if the {@code spec.deletion-policy} is not a policy
+     */
+    DeletionPolicy policy(DatabaseSpec spec) {
+        if (spec == null || spec.getDeletionPolicy() == null || spec.getDeletionPolicy().isBlank()) {
+            return policy;
+        }
+        return DeletionPolicy.of(spec.getDeletionPolicy());
+    }
+
+    /**
+     * Returns {@code true} if another database resource of the same host, which is not deleted, has the
+     * same value. Shared databases and users are not dropped, a resource without host or value is treated
+     * as shared and nothing is dropped.
+     */
+    boolean shared(PostgreSQLDatabase database, Function<DatabaseSpec, String> value) {
+        if (database.getSpec() == null || database.getSpec().getHost() == null
+                || value.apply(database.getSpec()) == null) {
+            return true;
+        }
+        IndexerResourceCache<PostgreSQLDatabase> tmp = cache;
+        if (tmp == null) {
+            return false;
+        }
+        ResourceID id = ResourceID.fromResource(database);
+        String host = database.getSpec().getHost();
+        String key = value.apply(database.getSpec());
+        return tmp.list()
+                .filter(db -> db.getSpec() != null && !db.isMarkedForDeletion())
+                .filter(db -> !id.equals(ResourceID.fromResource(db)))
+                .anyMatch(db -> Objects.equals(host, db.getSpec().getHost())
+                        && Objects.equals(key, value.apply(db.getSpec())));
+    }
+
+    /**
+     * Submit the teardown of the deleted database resource, an already submitted teardown is returned.
+     */
+    Task submit(PostgreSQLDatabase database, DatabaseHost host, DeletionPolicy policy) {
+        ResourceID id = ResourceID.fromResource(database);
+        return tasks.computeIfAbsent(id, k -> {
+            Task task = new Task();
+            boolean dropUser = policy == DeletionPolicy.DROP && !shared(database, DatabaseSpec::getUser);
+            executor(host).execute(() -> run(id, task, database, host, policy, dropUser));
+            log.info("Database '{}' namespace '{}' deleted - teardown '{}' queued", id.getName(),
+                    id.getNamespace().orElse(null), policy.tag());
+            return task;
+        });
+    }
+
+    /**
+     * Remove the finished teardown of the resource.
+     */
+    void remove(ResourceID id) {
+        tasks.remove(id);
+    }
+
+    /**
+     * Returns {@code true} if the failed teardown is not retried: the error is permanent or the teardown
+     * failed {@code teardown.max-attempts} times.
+     *
+     * @param errorClass the class of the teardown error
+     * @param attempts the failed teardowns of the resource including the last one
+     */
+    boolean exhausted(ErrorClass errorClass, int attempts) {
+        return errorClass == ErrorClass.PERMANENT || attempts >= maxAttempts;
+    }
+
+    /**
+     * Park the teardown of the resource until the next change of the resource.
+     */
+    void park(PostgreSQLDatabase database) {
+        parked.put(ResourceID.fromResource(database), generation(database));
+    }
+
+    /**
+     * Returns {@code true} if the teardown of the resource is parked and the resource did not change since.
+     */
+    boolean parked(PostgreSQLDatabase database) {
+        ResourceID id = ResourceID.fromResource(database);
+        Long generation = parked.get(id);
+        if (generation == null) {
+            return false;
+        }
+        if (generation == generation(database)) {
+            return true;
+        }
+        parked.remove(id, generation);
+        return false;
+    }
+
+    /**
+     * Forget the parked teardown of the resource, called when the finalizer is removed.
+     */
+    void forget(ResourceID id) {
+        parked.remove(id);
+    }
+
+    private static long generation(PostgreSQLDatabase database) {
+        Long generation = database.getMetadata().getGeneration();
+        return generation != null ? generation : 0;
+    }
+
+    /**
+     * Returns the teardown threads of the host with the concurrency of the host or the default.
+     */
+    private ExecutorService executor(DatabaseHost host) {
+        return executors.computeIfAbsent(host.getName(), name -> {
+            HostsConfig.HostConfig config = hostsConfig.hosts().get(name);
+            int size = config != null ? config.maxConcurrentTeardowns().orElse(maxConcurrent) : maxConcurrent;
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(size, r -> {
+                Thread thread = new Thread(r, "db-teardown-" + name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        });
+    }
+
+    int pending() {
+        return (int) tasks.values().stream().filter(t -> !t.isDone()).count();
+    }
+
+    private void run(ResourceID id, Task task, PostgreSQLDatabase database, DatabaseHost host, DeletionPolicy policy,
+            boolean dropUser) {
+        Span span = tracing.startTeardown(host.getName(), id.getName(), id.getNamespace().orElse(null));
+        String uuid = DatabaseTracing.reconcileId(span);
+        try (Scope scope = span.makeCurrent()) {
+            log.info("[{}] Teardown database '{}' policy '{}' host '{}'", uuid, database.getSpec().getName(),
+                    policy.tag(), host.getName());
+            teardown.drop(uuid, host, database.getSpec(), dropUser);
+            metrics.teardown(host.getName(), policy, DatabaseMetrics.OUTCOME_SUCCESS);
+            task.error = null;
+        } catch (Exception ex) {
+            log.error("[{}] Error teardown database '{}'", uuid, database.getSpec().getName(), ex);
+            DatabaseTracing.error(span, ex);
+            metrics.teardown(host.getName(), policy, DatabaseMetrics.OUTCOME_ERROR);
+            task.error = ex;
+        } finally {
+            span.end();
+            task.done = true;
+        }
+        if (eventSource.isRunning()) {
+            eventSource.fire(id);
+        }
+    }
+
+    /**
+     * Teardown of a deleted database resource.
+     */
+    static class Task {
+
+        private volatile boolean done;
+
+        private volatile Exception error;
+
+        boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Returns the error of the finished teardown or {@code null} if the teardown was successful.
+         */
+        Exception getError() {
+            return error;
+        }
+    }
+
+    static class TeardownEventSource extends AbstractEventSource {
+
+        void fire(ResourceID id) {
+            getEventHandler().handleEvent(new Event(id));
+        }
+    }
+}
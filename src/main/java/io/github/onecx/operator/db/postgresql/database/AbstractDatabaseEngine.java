@@ -0,0 +1,498 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+
+/**
+ * Reconcile flow of the database engines. The statements of the admin and user phase are planned from
+ * the catalog snapshot, the engines open the connections and execute the planned {@link SqlBatch}.
+ */
+abstract class AbstractDatabaseEngine implements DatabaseEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractDatabaseEngine.class);
+
+    static final String SQL_STATE_INSUFFICIENT_PRIVILEGE = "42501";
+
+    static final String SQL_STATE_DUPLICATE_DATABASE = "42P04";
+
+    /**
+     * SQL to read the stored user password verifier.
+     */
+    static final String SQL_USER_PASSWORD = "SELECT rolpassword FROM pg_catalog.pg_authid WHERE rolname = '%s'";
+    /**
+     * SQL to update user password
+     */
+    static final String SQL_UPDATE_USER = "ALTER USER %s PASSWORD '%s'";
+    /**
+     * SQL to create a new user, a user created concurrently by another replica gets the password.
+     */
+    static final String SQL_CREATE_USER = "DO $$ BEGIN"
+            + " IF NOT EXISTS (SELECT FROM pg_catalog.pg_roles WHERE rolname = '%1$s')"
+            + " THEN CREATE USER %1$s WITH ENCRYPTED PASSWORD '%2$s';"
+            + " ELSE ALTER USER %1$s PASSWORD '%2$s'; END IF; END $$";
+    /**
+     * SQL to update user search path.
+     */
+    static final String SQL_USER_SEARCH_PATH = "ALTER USER %s SET SEARCH_PATH TO %s;";
+    /**
+     * SQL to create user extension.
+     */
+    static final String SQL_USER_EXTENSION = "CREATE EXTENSION IF NOT EXISTS \"%s\"";
+    /**
+     * SQL to create user extension in the pinned version.
+     */
+    static final String SQL_USER_EXTENSION_VERSION = "CREATE EXTENSION IF NOT EXISTS \"%s\" VERSION '%s'";
+    /**
+     * SQL to update user extension to the pinned version.
+     */
+    static final String SQL_UPDATE_EXTENSION = "ALTER EXTENSION \"%s\" UPDATE TO '%s'";
+    /**
+     * SQL to update database for the owner.
+     */
+    static final String SQL_UPDATE_DB = "ALTER DATABASE %s OWNER TO %s";
+    /**
+     * SQL to create a database.
+     */
+    static final String SQL_CREATE_DB = "CREATE DATABASE %s OWNER '%s'";
+    /**
+     * SQL option to copy the database from the template.
+     */
+    static final String SQL_CREATE_DB_TEMPLATE = " TEMPLATE %s";
+    /**
+     * SQL option of the copy strategy.
+     */
+    static final String SQL_CREATE_DB_STRATEGY = " STRATEGY %s";
+    /**
+     * SQL to create a new schema for the user.
+     */
+    static final String SQL_CREATE_SCHEMA = "CREATE SCHEMA IF NOT EXISTS %s AUTHORIZATION %s;";
+    /**
+     * SQL to grant user role to admin.
+     */
+    static final String SQL_GRANT_ROLE_TO_ADMIN = "GRANT %s TO %s";
+    /**
+     * SQL to grant database to user.
+     */
+    static final String SQL_GRANT_DB_TO_USER = "GRANT ALL ON DATABASE %s TO %s";
+
+    @Inject
+    DatabaseMetrics metrics;
+
+    @Inject
+    DatabaseTracing tracing;
+
+    @Inject
+    TemplateDatabases templates;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.grant-user-role-to-admin", defaultValue = "true")
+    boolean grantUserRoleToAdmin;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.pipelined-ddl", defaultValue = "true")
+    boolean pipelined;
+
+    /**
+     * Strategy of {@code CREATE DATABASE} for resources without {@code spec.create-strategy}, default is the
+     * server default.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.create-strategy")
+    Optional<String> createStrategy;
+
+    /**
+     * Attempts of the reconcile SQL statements on transient SQL errors.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.retry.sql.max-attempts", defaultValue = "3")
+    int sqlMaxAttempts;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.retry.sql.initial", defaultValue = "PT0.2S")
+    Duration sqlInitialBackoff;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.retry.sql.max", defaultValue = "PT2S")
+    Duration sqlMaxBackoff;
+
+    @Override
+    public void update(String uuid, DatabaseHost host, DatabaseSpec spec, byte[] password)
+            throws SQLException, InvalidSpecException {
+        try {
+            createStrategy(spec);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidSpecException(ex.getMessage());
+        }
+        Backoff backoff = new Backoff(sqlInitialBackoff, sqlMaxBackoff, 2);
+        for (int attempt = 1;; attempt++) {
+            try {
+                checkExtensions(host.getCatalog(), spec);
+                phase(host, DatabaseMetrics.PHASE_ADMIN, () -> updateAdmin(uuid, host, spec, password));
+                phase(host, DatabaseMetrics.PHASE_USER, () -> updateUser(uuid, host, spec, password));
+                return;
+            } catch (SQLException ex) {
+                host.getCatalog().invalidate();
+                // the statements are planned again from the catalog, executed statements are skipped
+                if (attempt >= sqlMaxAttempts || ex.getSQLState() == null
+                        || ErrorClass.classify(ex.getSQLState()) != ErrorClass.TRANSIENT) {
+                    throw ex;
+                }
+                Duration delay = backoff.delay(attempt);
+                log.warn("[{}] Transient SQL error '{}' attempt {}/{} - retry in {} ms: {}", uuid, ex.getSQLState(),
+                        attempt, sqlMaxAttempts, delay.toMillis(), ex.getMessage());
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Create or update the user and the database with the admin connection.
+     */
+    abstract void updateAdmin(String uuid, DatabaseHost host, DatabaseSpec spec, byte[] password) throws SQLException;
+
+    /**
+     * Create the schema, search path and extensions with the user connection.
+     */
+    abstract void updateUser(String uuid, DatabaseHost host, DatabaseSpec spec, byte[] password) throws SQLException;
+
+    private void phase(DatabaseHost host, String phase, SqlPhase task) throws SQLException {
+        Timer.Sample sample = metrics.start();
+        Span span = tracing.start(phase);
+        boolean success = false;
+        try (Scope scope = span.makeCurrent()) {
+            task.run();
+            success = true;
+        } catch (SQLException | RuntimeException ex) {
+            DatabaseTracing.error(span, ex);
+            throw ex;
+        } finally {
+            span.end();
+            metrics.phase(sample, host.getName(), phase, success);
+        }
+    }
+
+    /**
+     * Add the statements of the admin phase to the batch.
+     *
+     * @param passwordMatches verifies the password of the existing user
+     * @return {@code true} if the database exists, otherwise the engine creates the database after the batch
+     */
+    boolean planAdmin(String uuid, DatabaseHost host, DatabaseSpec spec, byte[] password,
+            SqlQuery<Boolean> passwordMatches, SqlBatch batch) throws SQLException {
+        CatalogSnapshot catalog = host.getCatalog();
+        String databaseAdmin = host.getAdmin();
+
+        // check user
+        boolean userExists = catalog.userExists(spec.getUser());
+        log.info("[{}] Check user '{}' if exists '{}'.", uuid, spec.getUser(), userExists);
+
+        // create or update user
+        if (userExists) {
+            if (passwordMatches.get()) {
+                log.info("[{}] Password of existing user '{}' unchanged", uuid, spec.getUser());
+            } else {
+                batch.add(SqlStatement.ALTER_USER,
+                        String.format(SQL_UPDATE_USER, spec.getUser(), new String(password)),
+                        "Update existing user '{}'", spec.getUser());
+            }
+        } else {
+            batch.add(SqlStatement.CREATE_USER,
+                    String.format(SQL_CREATE_USER, spec.getUser(), new String(password)),
+                    () -> catalog.userCreated(spec.getUser()), "Create user '{}'", spec.getUser());
+        }
+
+        // check database
+        String owner = catalog.databaseOwner(spec.getName());
+        boolean dbExists = owner != null;
+        log.info("[{}] Check database '{}' if exists '{}'", uuid, spec.getName(), dbExists);
+
+        // create or update database
+        if (dbExists) {
+            if (!spec.getUser().equals(owner)) {
+                batch.add(SqlStatement.ALTER_DATABASE,
+                        String.format(SQL_UPDATE_DB, spec.getName(), spec.getUser()),
+                        () -> catalog.databaseOwnerChanged(spec.getName(), spec.getUser()),
+                        "Update database '{}'", spec.getName());
+            }
+        } else if (grantUserRoleToAdmin) {
+            // grant user role to admin
+            batch.add(SqlStatement.GRANT,
+                    String.format(SQL_GRANT_ROLE_TO_ADMIN, spec.getUser(), databaseAdmin),
+                    "Grant user role '{}' to admin '{}'", spec.getUser(), databaseAdmin);
+        }
+        return dbExists;
+    }
+
+    /**
+     * Add the statements of the user phase to the batch.
+     *
+     * @param schemas loads the schemas of the database
+     * @param extensions loads the installed extensions of the database
+     */
+    void planUser(DatabaseHost host, DatabaseSpec spec, SqlQuery<Set<String>> schemas,
+            SqlQuery<Map<String, String>> extensions, SqlBatch batch) throws SQLException {
+        CatalogSnapshot catalog = host.getCatalog();
+
+        // create schema if not exists
+        if (spec.getSchema() != null && !spec.getSchema().isBlank() && !schemas.get().contains(spec.getSchema())) {
+            batch.add(SqlStatement.CREATE_SCHEMA,
+                    String.format(SQL_CREATE_SCHEMA, spec.getSchema(), spec.getUser()),
+                    () -> catalog.schemaCreated(spec.getName(), spec.getSchema()),
+                    "Create schema '{}'", spec.getSchema());
+        }
+
+        // update user search path
+        if (spec.getUserSearchPath() != null && !spec.getUserSearchPath().isBlank()
+                && !CatalogSnapshot.searchPathEquals(catalog.userSearchPath(spec.getUser()), spec.getUserSearchPath())) {
+            batch.add(SqlStatement.SEARCH_PATH,
+                    String.format(SQL_USER_SEARCH_PATH, spec.getUser(), spec.getUserSearchPath()),
+                    () -> catalog.userSearchPathChanged(spec.getUser(), spec.getUserSearchPath()),
+                    "Update user '{}' search path to '{}'", spec.getUser(), spec.getUserSearchPath());
+        }
+
+        // create missing extensions and update the pinned versions
+        if (spec.getExtensions() != null && !spec.getExtensions().isEmpty()) {
+            Map<String, String> installed = extensions.get();
+            Map<String, String> versions = spec.getExtensionVersions() != null ? spec.getExtensionVersions() : Map.of();
+            for (String extension : spec.getExtensions()) {
+                String version = versions.get(extension);
+                String current = installed.get(extension);
+                if (current == null) {
+                    // extensions can install dependent extensions, reload them on next access
+                    batch.add(SqlStatement.CREATE_EXTENSION, version == null
+                            ? String.format(SQL_USER_EXTENSION, extension)
+                            : String.format(SQL_USER_EXTENSION_VERSION, extension, version),
+                            () -> catalog.invalidate(spec.getName()), "Create extension '{}' version '{}'",
+                            extension, version);
+                } else if (version != null && !version.equals(current)) {
+                    batch.add(SqlStatement.ALTER_EXTENSION,
+                            String.format(SQL_UPDATE_EXTENSION, extension, version),
+                            () -> catalog.extensionUpdated(spec.getName(), extension, version),
+                            "Update extension '{}' from version '{}' to '{}'", extension, current, version);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the database in the DDL bulkhead of the host. The admin connection is opened after the
+     * slot is acquired and the template is prepared, waiting reconciles do not hold admin connections.
+     */
+    void createDatabase(String uuid, DatabaseHost host, DatabaseSpec spec) throws SQLException {
+        try (DdlBulkhead.Permit permit = host.getDdlBulkhead().acquire(uuid)) {
+
+            // copy the template, the managed template is created before the first copy
+            templates.prepare(uuid, host, spec);
+
+            try (DdlConnection connection = ddlConnection(host)) {
+
+                // create database, can not be executed in a transaction block
+                try {
+                    execute(host, spec, SqlStatement.CREATE_DATABASE, connection, createDatabaseSql(spec));
+                    log.info("[{}] Create database '{}'", uuid, spec.getName());
+                } catch (SQLException ex) {
+                    if (createdConcurrently(uuid, host, spec, ex)) {
+                        execute(host, spec, SqlStatement.ALTER_DATABASE, connection,
+                                String.format(SQL_UPDATE_DB, spec.getName(), spec.getUser()));
+                    }
+                }
+                host.getCatalog().databaseOwnerChanged(spec.getName(), spec.getUser());
+
+                // grant database to user
+                execute(host, spec, SqlStatement.GRANT, connection,
+                        String.format(SQL_GRANT_DB_TO_USER, spec.getName(), spec.getUser()));
+                log.info("[{}] Grant database '{}' to user '{}'", uuid, spec.getName(), spec.getUser());
+            }
+        }
+    }
+
+    /**
+     * Open the admin connection of the database create, the statements are executed outside of a
+     * transaction block.
+     */
+    abstract DdlConnection ddlConnection(DatabaseHost host) throws SQLException;
+
+    private void execute(DatabaseHost host, DatabaseSpec spec, SqlStatement type, DdlConnection connection,
+            String sql) throws SQLException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            connection.execute(sql);
+            success = true;
+        } finally {
+            recorder(host, spec).record(type, start, System.nanoTime(), 1, success);
+        }
+    }
+
+    /**
+     * Check the error of {@code CREATE DATABASE}. A database which was created concurrently by another
+     * replica is accepted, the catalog is reloaded to check the owner.
+     *
+     * @return {@code true} if the owner of the existing database must be changed
+     * @throws SQLException the error if the database was not created concurrently
+     */
+    boolean createdConcurrently(String uuid, DatabaseHost host, DatabaseSpec spec, SQLException ex)
+            throws SQLException {
+        if (!SQL_STATE_DUPLICATE_DATABASE.equals(ex.getSQLState())) {
+            throw ex;
+        }
+        CatalogSnapshot catalog = host.getCatalog();
+        catalog.invalidate();
+        String owner = catalog.databaseOwner(spec.getName());
+        if (owner == null) {
+            throw ex;
+        }
+        log.info("[{}] Database '{}' was created concurrently with owner '{}'", uuid, spec.getName(), owner);
+        return !spec.getUser().equals(owner);
+    }
+
+    /**
+     * Returns the strategy of the {@code spec.create-strategy} or the configured default, {@code null} for
+     * the server default.
+     *
+     * @throws IllegalArgumentException if the value is not a strategy
+     */
+    CreateStrategy createStrategy(DatabaseSpec spec) {
+        String strategy = spec.getCreateStrategy() != null && !spec.getCreateStrategy().isBlank()
+                ? spec.getCreateStrategy()
+                : createStrategy.orElse(null);
+        return strategy != null ? CreateStrategy.of(strategy) : null;
+    }
+
+    /**
+     * Returns the {@code CREATE DATABASE} statement of the spec with the template and the strategy, the
+     * strategy is checked before the reconcile.
+     */
+    String createDatabaseSql(DatabaseSpec spec) {
+        return createDatabaseSql(spec, createStrategy(spec));
+    }
+
+    static String createDatabaseSql(DatabaseSpec spec, CreateStrategy strategy) {
+        StringBuilder sql = new StringBuilder(String.format(SQL_CREATE_DB, spec.getName(), spec.getUser()));
+        if (spec.getTemplate() != null && !spec.getTemplate().isBlank()) {
+            sql.append(String.format(SQL_CREATE_DB_TEMPLATE, spec.getTemplate()));
+        }
+        if (strategy != null) {
+            sql.append(String.format(SQL_CREATE_DB_STRATEGY, strategy.sql()));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Verify the password client side against the stored password verifier. Returns {@code false} if the
+     * verifier can not be read, in this case the password is always updated.
+     *
+     * @param verifier reads the stored password verifier of the user
+     */
+    boolean passwordMatches(String uuid, DatabaseHost host, DatabaseSpec spec, byte[] password,
+            SqlQuery<String> verifier) throws SQLException {
+        if (!host.passwordVerifierReadable) {
+            return false;
+        }
+        String user = spec.getUser();
+        SqlBatch.Recorder recorder = recorder(host, spec);
+        long start = System.nanoTime();
+        try {
+            String tmp = verifier.get();
+            recorder.record(SqlStatement.CHECK_USER, start, System.nanoTime(), 1, true);
+            return PasswordVerifier.matches(tmp, user, password);
+        } catch (SQLException ex) {
+            recorder.record(SqlStatement.CHECK_USER, start, System.nanoTime(), 1, false);
+            if (!SQL_STATE_INSUFFICIENT_PRIVILEGE.equals(ex.getSQLState())) {
+                throw ex;
+            }
+            host.passwordVerifierReadable = false;
+            log.warn("[{}] Admin '{}' can not read password verifiers, passwords are always updated", uuid,
+                    host.getAdmin());
+            return false;
+        }
+    }
+
+    /**
+     * Check the extensions and pinned versions of the spec against the extensions available on the
+     * server before any change is executed.
+     */
+    static void checkExtensions(CatalogSnapshot catalog, DatabaseSpec spec)
+            throws SQLException, ExtensionNotAvailableException {
+        List<String> extensions = spec.getExtensions() != null ? spec.getExtensions() : List.of();
+        Map<String, String> versions = spec.getExtensionVersions() != null ? spec.getExtensionVersions() : Map.of();
+        if (extensions.isEmpty() && versions.isEmpty()) {
+            return;
+        }
+        for (String extension : versions.keySet()) {
+            if (!extensions.contains(extension)) {
+                throw new ExtensionNotAvailableException(
+                        "Extension '" + extension + "' has a pinned version but is not in the extensions");
+            }
+        }
+        Map<String, Set<String>> available = catalog.availableExtensions();
+        for (String extension : extensions) {
+            Set<String> tmp = available.get(extension);
+            if (tmp == null) {
+                throw new ExtensionNotAvailableException("Extension '" + extension + "' is not available");
+            }
+            String version = versions.get(extension);
+            if (version != null && !tmp.contains(version)) {
+                throw new ExtensionNotAvailableException("Extension '" + extension + "' version '" + version
+                        + "' is not available, available versions: " + new TreeSet<>(tmp));
+            }
+        }
+    }
+
+    /**
+     * Records the statement metrics and spans, statements of a batch get the amortized duration.
+     */
+    SqlBatch.Recorder recorder(DatabaseHost host, DatabaseSpec spec) {
+        return (type, start, end, batchSize, success) -> {
+            metrics.statement(host.getName(), type, (end - start) / batchSize, success);
+            tracing.statement(host.getName(), spec.getName(), type, start, end, batchSize, success);
+        };
+    }
+
+    public static String createJdbcUrl(String jdbcUrl, String database) {
+        int startIndex = jdbcUrl.lastIndexOf("/");
+        int endIndex = jdbcUrl.lastIndexOf("?");
+        String result = jdbcUrl.substring(0, startIndex + 1) + database;
+        if (endIndex > -1) {
+            result = result + jdbcUrl.substring(endIndex);
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    interface SqlQuery<T> {
+
+        T get() throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface DdlConnection extends AutoCloseable {
+
+        void execute(String sql) throws SQLException;
+
+        @Override
+        default void close() throws SQLException {
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlPhase {
+
+        void run() throws SQLException;
+    }
+}
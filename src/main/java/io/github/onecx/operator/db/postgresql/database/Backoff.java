@@ -0,0 +1,30 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with equal jitter, the delay of an attempt is between half and the full
+ * exponential delay.
+ *
+ * @param initial the delay of the first attempt
+ * @param max the maximum delay
+ * @param multiplier the factor of the delay between two attempts
+ */
+public record Backoff(Duration initial, Duration max, double multiplier) {
+
+    /**
+     * Returns the delay before the next attempt.
+     *
+     * @param attempt the failed attempt, starting with {@code 1}
+     */
+    public Duration delay(int attempt) {
+        return delay(attempt, ThreadLocalRandom.current().nextDouble());
+    }
+
+    Duration delay(int attempt, double random) {
+        double exponential = initial.toMillis() * Math.pow(multiplier, Math.max(0, attempt - 1));
+        double capped = Math.min(exponential, max.toMillis());
+        return Duration.ofMillis((long) (capped / 2 + capped / 2 * random));
+    }
+}
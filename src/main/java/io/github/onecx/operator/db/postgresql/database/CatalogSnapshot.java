@@ -0,0 +1,379 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.agroal.api.AgroalDataSource;
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+
+/**
+ * In-memory snapshot of the PostgreSQL catalog. Users, databases and owners are loaded with bulk
+ * queries on the admin connection, schemas and extensions are loaded once per database on the user
+ * connection. Operator writes are applied to the snapshot, out-of-band changes are picked up by the
+ * scheduled refresh of the {@link HostRegistry}.
+ */
+public class CatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    /**
+     * SQL to load all users with the user configuration.
+     */
+    private static final String SQL_USERS = "SELECT usename, useconfig FROM pg_catalog.pg_user";
+    /**
+     * SQL to load all databases with the owner.
+     */
+    private static final String SQL_DATABASES = "SELECT d.datname, r.rolname FROM pg_catalog.pg_database d "
+            + "JOIN pg_catalog.pg_roles r ON r.oid = d.datdba";
+    /**
+     * SQL to load all schemas of the database.
+     */
+    static final String SQL_SCHEMAS = "SELECT nspname FROM pg_catalog.pg_namespace";
+    /**
+     * SQL to load all installed extensions of the database.
+     */
+    static final String SQL_EXTENSIONS = "SELECT extname, extversion FROM pg_catalog.pg_extension";
+    /**
+     * SQL to load all extension versions available on the server.
+     */
+    private static final String SQL_AVAILABLE_EXTENSIONS = "SELECT name, version "
+            + "FROM pg_catalog.pg_available_extension_versions";
+
+    private static final String SEARCH_PATH = "search_path=";
+
+    private final AgroalDataSource dataSource;
+
+    private final Object lock = new Object();
+
+    private volatile State state;
+
+    private volatile Map<String, Set<String>> availableExtensions;
+
+    /**
+     * The snapshot is loaded on first use, the admin pool opens no connection before the first reconcile.
+     */
+    private volatile boolean used;
+
+    CatalogSnapshot(AgroalDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Returns {@code true} if the user exists.
+     */
+    public boolean userExists(String user) throws SQLException {
+        return state().users.containsKey(user);
+    }
+
+    /**
+     * Returns the search path of the user or {@code null} if not set.
+     */
+    public String userSearchPath(String user) throws SQLException {
+        return state().users.getOrDefault(user, Optional.empty()).orElse(null);
+    }
+
+    /**
+     * Returns the owner of the database or {@code null} if the database does not exist.
+     */
+    public String databaseOwner(String database) throws SQLException {
+        return state().databases.get(database);
+    }
+
+    /**
+     * Returns the schemas of the database. The schemas are loaded with the database connection if
+     * they are not in the snapshot.
+     */
+    public Set<String> schemas(String database, Connection connection) throws SQLException {
+        return objects(database, connection).schemas;
+    }
+
+    /**
+     * Returns the installed extensions with the version of the database. The extensions are loaded
+     * with the database connection if they are not in the snapshot.
+     */
+    public Map<String, String> extensions(String database, Connection connection) throws SQLException {
+        return objects(database, connection).extensions;
+    }
+
+    /**
+     * Returns the schemas of the database or {@code null} if they are not in the snapshot.
+     */
+    Set<String> schemas(String database) throws SQLException {
+        DatabaseObjects objects = state().objects.get(database);
+        return objects != null ? objects.schemas : null;
+    }
+
+    /**
+     * Returns the installed extensions of the database or {@code null} if they are not in the snapshot.
+     */
+    Map<String, String> extensions(String database) throws SQLException {
+        DatabaseObjects objects = state().objects.get(database);
+        return objects != null ? objects.extensions : null;
+    }
+
+    /**
+     * Add the schemas and extensions of the database which were loaded without JDBC connection.
+     */
+    void objectsLoaded(String database, Collection<String> schemas, Map<String, String> extensions)
+            throws SQLException {
+        DatabaseObjects objects = new DatabaseObjects();
+        objects.schemas.addAll(schemas);
+        objects.extensions.putAll(extensions);
+        state().objects.putIfAbsent(database, objects);
+    }
+
+    /**
+     * Returns the extensions with the versions available on the server. The available extensions are
+     * loaded once with the admin connection and reloaded after the next refresh.
+     */
+    public Map<String, Set<String>> availableExtensions() throws SQLException {
+        Map<String, Set<String>> tmp = availableExtensions;
+        if (tmp != null) {
+            return tmp;
+        }
+        tmp = new HashMap<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(SQL_AVAILABLE_EXTENSIONS)) {
+            while (rs.next()) {
+                tmp.computeIfAbsent(rs.getString(1), k -> new HashSet<>()).add(rs.getString(2));
+            }
+        }
+        log.info("Available extensions loaded: {}", tmp.size());
+        availableExtensions = tmp;
+        return tmp;
+    }
+
+    public void userCreated(String user) {
+        synchronized (lock) {
+            if (state != null) {
+                state.users.putIfAbsent(user, Optional.empty());
+            }
+        }
+    }
+
+    public void userSearchPathChanged(String user, String searchPath) {
+        synchronized (lock) {
+            if (state != null) {
+                state.users.put(user, Optional.ofNullable(normalizeSearchPath(searchPath)));
+            }
+        }
+    }
+
+    public void databaseOwnerChanged(String database, String owner) {
+        synchronized (lock) {
+            if (state != null) {
+                state.databases.put(database, owner);
+            }
+        }
+    }
+
+    public void schemaCreated(String database, String schema) {
+        synchronized (lock) {
+            if (state != null && state.objects.containsKey(database)) {
+                state.objects.get(database).schemas.add(schema);
+            }
+        }
+    }
+
+    public void extensionUpdated(String database, String extension, String version) {
+        synchronized (lock) {
+            if (state != null && state.objects.containsKey(database)) {
+                state.objects.get(database).extensions.put(extension, version);
+            }
+        }
+    }
+
+    /**
+     * Drop the snapshot, the next access loads the catalog again.
+     */
+    public void invalidate() {
+        synchronized (lock) {
+            state = null;
+        }
+        availableExtensions = null;
+        log.info("Catalog snapshot invalidated");
+    }
+
+    /**
+     * Drop the snapshot of the database objects, the next access loads them again.
+     */
+    public void invalidate(String database) {
+        synchronized (lock) {
+            if (state != null) {
+                state.objects.remove(database);
+            }
+        }
+    }
+
+    /**
+     * Reload the snapshot from the catalog. A snapshot which was never used is not loaded. The loaded
+     * schemas and extensions of the existing databases are kept, they are compared by the drift check.
+     *
+     * @return {@code true} if the snapshot was loaded
+     */
+    public boolean refresh() {
+        if (!used) {
+            return false;
+        }
+        try {
+            synchronized (lock) {
+                State tmp = load();
+                if (state != null) {
+                    state.objects.forEach((database, objects) -> {
+                        if (tmp.databases.containsKey(database)) {
+                            tmp.objects.put(database, objects);
+                        }
+                    });
+                }
+                state = tmp;
+            }
+            availableExtensions = null;
+            return true;
+        } catch (SQLException ex) {
+            log.error("Error refresh catalog snapshot", ex);
+            invalidate();
+            return false;
+        }
+    }
+
+    /**
+     * Compare the cluster wide objects of the database spec (user, database, owner, search path) with
+     * the snapshot. Schemas and extensions are objects of the database, they are compared only if they
+     * are loaded in the snapshot.
+     *
+     * @param spec the database spec
+     * @return the drift reason or empty if the spec is in sync
+     */
+    public Optional<String> drift(DatabaseSpec spec) throws SQLException {
+        if (!userExists(spec.getUser())) {
+            return Optional.of("user");
+        }
+        String owner = databaseOwner(spec.getName());
+        if (owner == null) {
+            return Optional.of("database");
+        }
+        if (!owner.equals(spec.getUser())) {
+            return Optional.of("owner");
+        }
+        if (spec.getUserSearchPath() != null && !spec.getUserSearchPath().isBlank()
+                && !searchPathEquals(userSearchPath(spec.getUser()), spec.getUserSearchPath())) {
+            return Optional.of("search-path");
+        }
+        DatabaseObjects objects = state().objects.get(spec.getName());
+        if (objects == null) {
+            return Optional.empty();
+        }
+        if (spec.getSchema() != null && !spec.getSchema().isBlank() && !objects.schemas.contains(spec.getSchema())) {
+            return Optional.of("schema");
+        }
+        if (spec.getExtensions() != null) {
+            Map<String, String> versions = spec.getExtensionVersions() != null ? spec.getExtensionVersions() : Map.of();
+            for (String extension : spec.getExtensions()) {
+                String current = objects.extensions.get(extension);
+                String version = versions.get(extension);
+                if (current == null || (version != null && !version.equals(current))) {
+                    return Optional.of("extension");
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    static boolean searchPathEquals(String a, String b) {
+        return Objects.equals(normalizeSearchPath(a), normalizeSearchPath(b));
+    }
+
+    private State state() throws SQLException {
+        State tmp = state;
+        if (tmp != null) {
+            return tmp;
+        }
+        synchronized (lock) {
+            if (state == null) {
+                state = load();
+                used = true;
+            }
+            return state;
+        }
+    }
+
+    private DatabaseObjects objects(String database, Connection connection) throws SQLException {
+        State tmp = state();
+        DatabaseObjects objects = tmp.objects.get(database);
+        if (objects != null) {
+            return objects;
+        }
+        objects = new DatabaseObjects();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(SQL_SCHEMAS)) {
+                while (rs.next()) {
+                    objects.schemas.add(rs.getString(1));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(SQL_EXTENSIONS)) {
+                while (rs.next()) {
+                    objects.extensions.put(rs.getString(1), rs.getString(2));
+                }
+            }
+        }
+        tmp.objects.putIfAbsent(database, objects);
+        return tmp.objects.get(database);
+    }
+
+    private State load() throws SQLException {
+        State tmp = new State();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(SQL_USERS)) {
+                while (rs.next()) {
+                    tmp.users.put(rs.getString(1), Optional.ofNullable(searchPath(rs.getArray(2))));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(SQL_DATABASES)) {
+                while (rs.next()) {
+                    tmp.databases.put(rs.getString(1), rs.getString(2));
+                }
+            }
+        }
+        log.info("Catalog snapshot loaded users: {} databases: {}", tmp.users.size(), tmp.databases.size());
+        return tmp;
+    }
+
+    private static String searchPath(Array config) throws SQLException {
+        if (config == null) {
+            return null;
+        }
+        for (String item : (String[]) config.getArray()) {
+            if (item != null && item.toLowerCase().startsWith(SEARCH_PATH)) {
+                return normalizeSearchPath(item.substring(SEARCH_PATH.length()));
+            }
+        }
+        return null;
+    }
+
+    private static String normalizeSearchPath(String searchPath) {
+        if (searchPath == null || searchPath.isBlank()) {
+            return null;
+        }
+        return searchPath.replace(" ", "").toLowerCase();
+    }
+
+    private static class State {
+
+        final Map<String, Optional<String>> users = new ConcurrentHashMap<>();
+
+        final Map<String, String> databases = new ConcurrentHashMap<>();
+
+        final Map<String, DatabaseObjects> objects = new ConcurrentHashMap<>();
+    }
+
+    private static class DatabaseObjects {
+
+        final Set<String> schemas = ConcurrentHashMap.newKeySet();
+
+        final Map<String, String> extensions = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+/**
+ * Strategy of {@code CREATE DATABASE} to copy the template database, requires PostgreSQL 15.
+ */
+public enum CreateStrategy {
+
+    /**
+     * Copy the files of the template with a checkpoint, fast for large templates.
+     */
+    FILE_COPY("file-copy", "FILE_COPY"),
+
+    /**
+     * Copy the template block by block into the WAL, fast for small templates and the PostgreSQL default.
+     */
+    WAL_LOG("wal-log", "WAL_LOG");
+
+    private final String tag;
+
+    private final String sql;
+
+    CreateStrategy(String tag, String sql) {
+        this.tag = tag;
+        this.sql = sql;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    /**
+     * Returns the strategy of the {@code spec.create-strategy} or configuration value.
+     *
+     * @throws IllegalArgumentException if the value is not a strategy
+     */
+    public static CreateStrategy of(String value) {
+        for (CreateStrategy strategy : values()) {
+            if (strategy.tag.equals(value)) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown create strategy '" + value + "', expected one of file-copy, "
+                + "wal-log");
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.SQLException;
+
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+
+/**
+ * SQL engine which provisions the user, database, schema and extensions of a database spec. The engine
+ * is selected with {@value #ENGINE}, {@code jdbc} (default) or {@code reactive}.
+ */
+public interface DatabaseEngine {
+
+    String ENGINE = "onecx.operator.db.postgresql.engine";
+
+    /**
+     * Create or update the database objects of the spec.
+     *
+     * @param uuid the reconcile ID
+     * @param host the database host
+     * @param spec the database spec
+     * @param password the user password
+     * @throws SQLException if a SQL statement failed
+     * @throws InvalidSpecException if an extension of the spec is not available on the host or the create
+     *         strategy is unknown
+     */
+    void update(String uuid, DatabaseHost host, DatabaseSpec spec, byte[] password)
+            throws SQLException, InvalidSpecException;
+}
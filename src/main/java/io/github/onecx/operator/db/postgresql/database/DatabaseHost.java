@@ -0,0 +1,81 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.concurrent.Semaphore;
+
+import io.agroal.api.AgroalDataSource;
+
+/**
+ * PostgreSQL server with the admin datasource and the catalog snapshot.
+ */
+public class DatabaseHost {
+
+    private final String name;
+
+    private final AgroalDataSource dataSource;
+
+    private final String admin;
+
+    private final CatalogSnapshot catalog;
+
+    private final Semaphore reconciles;
+
+    private final DdlBulkhead ddlBulkhead;
+
+    /**
+     * Reading {@code pg_authid} requires superuser, the flag is reset on the first permission error.
+     */
+    volatile boolean passwordVerifierReadable = true;
+
+    DatabaseHost(String name, AgroalDataSource dataSource, String admin, int maxConcurrentReconciles,
+            DdlBulkhead ddlBulkhead) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.admin = admin;
+        this.catalog = new CatalogSnapshot(dataSource);
+        this.reconciles = maxConcurrentReconciles > 0 ? new Semaphore(maxConcurrentReconciles, true) : null;
+        this.ddlBulkhead = ddlBulkhead;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public AgroalDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public String getAdmin() {
+        return admin;
+    }
+
+    public CatalogSnapshot getCatalog() {
+        return catalog;
+    }
+
+    public DdlBulkhead getDdlBulkhead() {
+        return ddlBulkhead;
+    }
+
+    /**
+     * Try to reserve a reconcile slot of the server.
+     *
+     * @return {@code true} if the reconcile can be started
+     */
+    public boolean tryAcquireReconcile() {
+        return reconciles == null || reconciles.tryAcquire();
+    }
+
+    public void releaseReconcile() {
+        if (reconciles != null) {
+            reconciles.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseHost{" +
+                "name=" + name +
+                ", admin=" + admin +
+                '}';
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ImageMode;
+
+/**
+ * Reconcile metrics of the database hosts. All meters are tagged by the {@code spec.host} value.
+ */
+@ApplicationScoped
+public class DatabaseMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseMetrics.class);
+
+    private static final String METRIC_PREFIX = "onecx.operator.db.postgresql";
+
+    public static final String PHASE_ADMIN = "admin";
+
+    public static final String PHASE_USER = "user";
+
+    public static final String OUTCOME_SUCCESS = "success";
+
+    public static final String OUTCOME_ERROR = "error";
+
+    public static final String OUTCOME_UNCHANGED = "unchanged";
+
+    public static final String OUTCOME_BUSY = "busy";
+
+    public static final String OUTCOME_DEFERRED = "deferred";
+
+    @Inject
+    MeterRegistry registry;
+
+    private final AtomicBoolean firstReconcile = new AtomicBoolean();
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Record the duration of a reconcile phase.
+     */
+    public void phase(Timer.Sample sample, String host, String phase, boolean success) {
+        sample.stop(Timer.builder(METRIC_PREFIX + ".reconcile.phase")
+                .tag("host", host)
+                .tag("phase", phase)
+                .tag("outcome", outcome(success))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    /**
+     * Record the duration of a SQL statement.
+     */
+    void statement(String host, SqlStatement statement, long nanos, boolean success) {
+        Timer.builder(METRIC_PREFIX + ".sql")
+                .tag("host", host)
+                .tag("statement", statement.tag())
+                .tag("outcome", outcome(success))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count the outcome of a reconcile.
+     */
+    public void reconcile(String host, String outcome) {
+        registry.counter(METRIC_PREFIX + ".reconcile", "host", String.valueOf(host), "outcome", outcome).increment();
+        if ((OUTCOME_SUCCESS.equals(outcome) || OUTCOME_UNCHANGED.equals(outcome))
+                && firstReconcile.compareAndSet(false, true)) {
+            firstReconcile();
+        }
+    }
+
+    /**
+     * Record the time from the process start to the first finished reconcile.
+     */
+    private void firstReconcile() {
+        Instant start = ProcessHandle.current().info().startInstant().orElse(null);
+        if (start == null) {
+            return;
+        }
+        long millis = Duration.between(start, Instant.now()).toMillis();
+        String image = ImageMode.current().isNativeImage() ? "native" : "jvm";
+        TimeGauge.builder(METRIC_PREFIX + ".startup.first-reconcile", () -> millis, TimeUnit.MILLISECONDS)
+                .tag("image", image)
+                .register(registry);
+        log.info("Time to first reconcile: {} ms ({})", millis, image);
+    }
+
+    /**
+     * Count the reconcile error by the SQL state or the exception type.
+     */
+    public void error(String host, Throwable error) {
+        error(host, error, ErrorClass.classify(error));
+    }
+
+    /**
+     * Count the reconcile error by the SQL state or the exception type and the error class.
+     */
+    public void error(String host, Throwable error, ErrorClass errorClass) {
+        reconcile(host, OUTCOME_ERROR);
+        registry.counter(METRIC_PREFIX + ".reconcile.errors", "host", String.valueOf(host), "error", errorTag(error),
+                "class", errorClass.tag()).increment();
+    }
+
+    /**
+     * Count the drifted database resource found by the drift sweep.
+     */
+    public void drift(String host, String reason) {
+        registry.counter(METRIC_PREFIX + ".drift", "host", host, "reason", reason).increment();
+    }
+
+    /**
+     * Count the teardown of a deleted database resource by the deletion policy and outcome.
+     */
+    public void teardown(String host, DeletionPolicy policy, String outcome) {
+        registry.counter(METRIC_PREFIX + ".teardown", "host", String.valueOf(host), "policy", policy.tag(),
+                "outcome", outcome).increment();
+    }
+
+    /**
+     * Register the admin pool gauges and the connection acquisition wait time of the host.
+     */
+    void adminPool(String host, AgroalDataSource dataSource) {
+        Gauge.builder(METRIC_PREFIX + ".admin.pool.active", dataSource, ds -> ds.getMetrics().activeCount())
+                .tag("host", host).register(registry);
+        Gauge.builder(METRIC_PREFIX + ".admin.pool.available", dataSource, ds -> ds.getMetrics().availableCount())
+                .tag("host", host).register(registry);
+        Gauge.builder(METRIC_PREFIX + ".admin.pool.awaiting", dataSource, ds -> ds.getMetrics().awaitingCount())
+                .tag("host", host).register(registry);
+        Gauge.builder(METRIC_PREFIX + ".admin.pool.max", dataSource,
+                ds -> ds.getConfiguration().connectionPoolConfiguration().maxSize())
+                .tag("host", host).register(registry);
+        FunctionTimer.builder(METRIC_PREFIX + ".admin.pool.acquire", dataSource,
+                ds -> ds.getMetrics().acquireCount(),
+                ds -> ds.getMetrics().blockingTimeTotal().toNanos(), TimeUnit.NANOSECONDS)
+                .tag("host", host).register(registry);
+        TimeGauge.builder(METRIC_PREFIX + ".admin.pool.acquire.max", dataSource, TimeUnit.NANOSECONDS,
+                ds -> ds.getMetrics().blockingTimeMax().toNanos())
+                .tag("host", host).register(registry);
+    }
+
+    static String errorTag(Throwable error) {
+        Throwable tmp = error;
+        while (tmp != null) {
+            if (tmp instanceof SQLException sql && sql.getSQLState() != null) {
+                return sql.getSQLState();
+            }
+            if (tmp.getCause() == null || tmp.getCause() == tmp) {
+                return tmp.getClass().getSimpleName();
+            }
+            tmp = tmp.getCause();
+        }
+        return "unknown";
+    }
+
+    private static String outcome(boolean success) {
+        return success ? OUTCOME_SUCCESS : OUTCOME_ERROR;
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+
+/**
+ * Drop the database and the user of a deleted database resource with the admin datasource of the host.
+ * All statements are idempotent, a failed teardown is executed again from the start.
+ */
+@ApplicationScoped
+public class DatabaseTeardown {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseTeardown.class);
+
+    /**
+     * SQL to terminate the sessions of the database, {@code DROP DATABASE} fails on open sessions.
+     */
+    static final String SQL_TERMINATE_BACKENDS = "SELECT pg_terminate_backend(pid) FROM pg_stat_activity"
+            + " WHERE datname = '%s' AND pid <> pg_backend_pid()";
+    /**
+     * SQL to check if the user exists, the user can be dropped outside the operator.
+     */
+    static final String SQL_USER_EXISTS = "SELECT 1 FROM pg_catalog.pg_roles WHERE rolname = '%s'";
+    /**
+     * SQL to prevent new sessions of the database.
+     */
+    static final String SQL_REVOKE_CONNECT = "REVOKE CONNECT ON DATABASE %s FROM PUBLIC";
+    /**
+     * SQL to prevent new sessions of the database and the user.
+     */
+    static final String SQL_REVOKE_CONNECT_USER = "REVOKE CONNECT ON DATABASE %s FROM PUBLIC, %s";
+    /**
+     * SQL to drop the database.
+     */
+    static final String SQL_DROP_DB = "DROP DATABASE IF EXISTS %s";
+    /**
+     * SQL to transfer the objects of the user in the admin database to the admin.
+     */
+    static final String SQL_REASSIGN_OWNED = "REASSIGN OWNED BY %s TO %s";
+    /**
+     * SQL to drop the remaining objects and the privileges of the user in the admin database.
+     */
+    static final String SQL_DROP_OWNED = "DROP OWNED BY %s";
+    /**
+     * SQL to drop the user.
+     */
+    static final String SQL_DROP_USER = "DROP ROLE IF EXISTS %s";
+
+    @Inject
+    DatabaseMetrics metrics;
+
+    @Inject
+    DatabaseTracing tracing;
+
+    @Inject
+    UserDataSourceCache userDataSourceCache;
+
+    /**
+     * Terminate the sessions of the database and drop the database and optionally the user. The objects and
+     * privileges of the user in the admin database are reassigned and dropped before the user, objects in
+     * other databases still block the drop of the user.
+     *
+     * @param dropUser drop the user after the database
+     */
+    public void drop(String uuid, DatabaseHost host, DatabaseSpec spec, boolean dropUser) throws SQLException {
+        userDataSourceCache.invalidate(host.getName(), spec.getName());
+        try (Connection connection = host.getDataSource().getConnection();
+                Statement statement = connection.createStatement()) {
+
+            boolean userExists = userExists(host, spec, statement);
+            if (host.getCatalog().databaseOwner(spec.getName()) != null) {
+                // no new sessions of the user while the sessions are terminated
+                execute(host, spec, SqlStatement.REVOKE, statement, userExists
+                        ? String.format(SQL_REVOKE_CONNECT_USER, spec.getName(), spec.getUser())
+                        : String.format(SQL_REVOKE_CONNECT, spec.getName()));
+                execute(host, spec, SqlStatement.TERMINATE_BACKENDS, statement,
+                        String.format(SQL_TERMINATE_BACKENDS, spec.getName()));
+                log.info("[{}] Terminate sessions of database '{}'", uuid, spec.getName());
+            }
+
+            // drop database, can not be executed in a transaction block
+            execute(host, spec, SqlStatement.DROP_DATABASE, statement, String.format(SQL_DROP_DB, spec.getName()));
+            log.info("[{}] Drop database '{}'", uuid, spec.getName());
+
+            if (dropUser && userExists) {
+                execute(host, spec, SqlStatement.REASSIGN_OWNED, statement,
+                        String.format(SQL_REASSIGN_OWNED, spec.getUser(), host.getAdmin()));
+                execute(host, spec, SqlStatement.DROP_OWNED, statement, String.format(SQL_DROP_OWNED, spec.getUser()));
+                execute(host, spec, SqlStatement.DROP_USER, statement, String.format(SQL_DROP_USER, spec.getUser()));
+                log.info("[{}] Drop user '{}'", uuid, spec.getUser());
+            }
+        } finally {
+            host.getCatalog().invalidate();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the user exists on the server, the catalog snapshot is not used because the
+     * user can be dropped outside the operator.
+     */
+    private boolean userExists(DatabaseHost host, DatabaseSpec spec, Statement statement) throws SQLException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try (ResultSet rs = statement.executeQuery(String.format(SQL_USER_EXISTS, spec.getUser()))) {
+            boolean result = rs.next();
+            success = true;
+            return result;
+        } finally {
+            long end = System.nanoTime();
+            metrics.statement(host.getName(), SqlStatement.CHECK_USER, end - start, success);
+            tracing.statement(host.getName(), spec.getName(), SqlStatement.CHECK_USER, start, end, 1, success);
+        }
+    }
+
+    private void execute(DatabaseHost host, DatabaseSpec spec, SqlStatement type, Statement statement, String sql)
+            throws SQLException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            statement.execute(sql);
+            success = true;
+        } finally {
+            long end = System.nanoTime();
+            metrics.statement(host.getName(), type, end - start, success);
+            tracing.statement(host.getName(), spec.getName(), type, start, end, 1, success);
+        }
+    }
+}
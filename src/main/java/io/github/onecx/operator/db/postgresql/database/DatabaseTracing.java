@@ -0,0 +1,118 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+
+/**
+ * Reconcile tracing. Every reconcile is a new trace, the trace ID is used as the reconcile uuid of the
+ * log messages. The spans are exported with the configured OpenTelemetry exporter or any
+ * {@code SpanExporter} bean.
+ */
+@ApplicationScoped
+public class DatabaseTracing {
+
+    public static final AttributeKey<String> DB_HOST = AttributeKey.stringKey("onecx.db.host");
+
+    public static final AttributeKey<String> RESOURCE_NAME = AttributeKey.stringKey("onecx.db.resource");
+
+    public static final AttributeKey<String> RESOURCE_NAMESPACE = AttributeKey.stringKey("k8s.namespace.name");
+
+    public static final AttributeKey<String> DB_SYSTEM = AttributeKey.stringKey("db.system");
+
+    public static final AttributeKey<String> DB_NAME = AttributeKey.stringKey("db.name");
+
+    public static final AttributeKey<String> DB_OPERATION = AttributeKey.stringKey("db.operation");
+
+    public static final AttributeKey<Long> DB_BATCH_SIZE = AttributeKey.longKey("onecx.db.batch.size");
+
+    @Inject
+    Tracer tracer;
+
+    /**
+     * Start the root span of the reconcile.
+     */
+    public Span startReconcile(String host, String name, String namespace) {
+        return tracer.spanBuilder("reconcile")
+                .setNoParent()
+                .setAttribute(DB_HOST, String.valueOf(host))
+                .setAttribute(RESOURCE_NAME, name)
+                .setAttribute(RESOURCE_NAMESPACE, namespace)
+                .startSpan();
+    }
+
+    /**
+     * Start the root span of the teardown of a deleted database resource.
+     */
+    public Span startTeardown(String host, String name, String namespace) {
+        return tracer.spanBuilder("teardown")
+                .setNoParent()
+                .setAttribute(DB_HOST, String.valueOf(host))
+                .setAttribute(RESOURCE_NAME, name)
+                .setAttribute(RESOURCE_NAMESPACE, namespace)
+                .startSpan();
+    }
+
+    /**
+     * Start a child span of the current span.
+     */
+    public Span start(String name) {
+        return tracer.spanBuilder(name).startSpan();
+    }
+
+    /**
+     * Record the span of a SQL statement which was executed between {@code start} and {@code end}
+     * ({@link System#nanoTime()}). The SQL text is not recorded, it contains the passwords.
+     */
+    void statement(String host, String database, SqlStatement type, long start, long end, int batchSize,
+            boolean success) {
+        long nanoTime = System.nanoTime();
+        Instant now = Instant.now();
+        long epoch = TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+
+        Span span = tracer.spanBuilder(type.tag())
+                .setSpanKind(SpanKind.CLIENT)
+                .setStartTimestamp(epoch - (nanoTime - start), TimeUnit.NANOSECONDS)
+                .setAttribute(DB_SYSTEM, "postgresql")
+                .setAttribute(DB_NAME, database)
+                .setAttribute(DB_OPERATION, type.tag())
+                .setAttribute(DB_HOST, host)
+                .startSpan();
+        if (batchSize > 1) {
+            span.setAttribute(DB_BATCH_SIZE, batchSize);
+        }
+        if (!success) {
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end(epoch - (nanoTime - end), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Mark the span as failed.
+     */
+    public static void error(Span span, Throwable error) {
+        span.recordException(error);
+        span.setStatus(StatusCode.ERROR, error.getMessage());
+    }
+
+    /**
+     * Returns the trace ID of the span in the UUID format or a random UUID if tracing is disabled.
+     */
+    public static String reconcileId(Span span) {
+        if (!span.getSpanContext().isValid()) {
+            return UUID.randomUUID().toString();
+        }
+        String id = span.getSpanContext().getTraceId();
+        return id.substring(0, 8) + "-" + id.substring(8, 12) + "-" + id.substring(12, 16) + "-"
+                + id.substring(16, 20) + "-" + id.substring(20);
+    }
+}
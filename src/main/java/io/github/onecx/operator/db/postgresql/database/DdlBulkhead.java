@@ -0,0 +1,88 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Limits the concurrent heavy DDL statements like {@code CREATE DATABASE} of one database host.
+ * Waiting reconciles are served in arrival order.
+ */
+public class DdlBulkhead {
+
+    private static final Logger log = LoggerFactory.getLogger(DdlBulkhead.class);
+
+    private static final String METRIC_PREFIX = "onecx.operator.db.postgresql.ddl";
+
+    private final String host;
+
+    private final Semaphore semaphore;
+
+    private final Duration timeout;
+
+    private final Timer waitTimer;
+
+    DdlBulkhead(String host, int limit, Duration timeout, MeterRegistry registry) {
+        this.host = host;
+        this.semaphore = new Semaphore(limit, true);
+        this.timeout = timeout;
+        this.waitTimer = registry.timer(METRIC_PREFIX + ".wait", "host", host);
+        registry.gauge(METRIC_PREFIX + ".queue", Tags.of("host", host), semaphore,
+                Semaphore::getQueueLength);
+        registry.gauge(METRIC_PREFIX + ".available", Tags.of("host", host), semaphore,
+                Semaphore::availablePermits);
+    }
+
+    /**
+     * Wait for a DDL slot of the host. The returned permit must be closed after the DDL statement.
+     *
+     * @param uuid the reconcile uuid
+     * @return the permit
+     * @throws SQLTimeoutException if no slot is free after the timeout
+     */
+    public Permit acquire(String uuid) throws SQLTimeoutException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTimeoutException("Interrupted waiting for DDL slot of host " + host, ex);
+        }
+        long wait = System.nanoTime() - start;
+        waitTimer.record(wait, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw new SQLTimeoutException("Timeout waiting for DDL slot of host " + host + " after " + timeout);
+        }
+        log.info("[{}] Acquired DDL slot of host '{}' after {} ms", uuid, host, TimeUnit.NANOSECONDS.toMillis(wait));
+        return new Permit();
+    }
+
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+
+    /**
+     * DDL slot of the host.
+     */
+    public class Permit implements AutoCloseable {
+
+        private boolean released;
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                semaphore.release();
+            }
+        }
+    }
+}
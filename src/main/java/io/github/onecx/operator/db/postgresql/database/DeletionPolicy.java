@@ -0,0 +1,47 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+/**
+ * What happens with the database and the user of a deleted database resource.
+ */
+public enum DeletionPolicy {
+
+    /**
+     * Keep the database and the user.
+     */
+    RETAIN("retain"),
+
+    /**
+     * Drop the database and keep the user.
+     */
+    DROP_DATABASE("drop-database"),
+
+    /**
+     * Drop the database and the user.
+     */
+    DROP("drop");
+
+    private final String tag;
+
+    DeletionPolicy(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * Returns the policy of the {@code spec.deletion-policy} or configuration value.
+     *
+     * @throws IllegalArgumentException if the value is not a policy
+     */
+    public static DeletionPolicy of(String value) {
+        for (DeletionPolicy policy : values()) {
+            if (policy.tag.equals(value)) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown deletion policy '" + value + "', expected one of retain, "
+                + "drop-database, drop");
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.Set;
+
+import io.github.onecx.operator.db.postgresql.database.HostRegistry.UnknownHostException;
+
+/**
+ * Classification of the reconcile errors by the exception type and the SQL state.
+ */
+public enum ErrorClass {
+
+    /**
+     * The error is caused by the spec, the secret or the configuration and does not change on retry.
+     */
+    PERMANENT("permanent"),
+
+    /**
+     * Connection errors, deadlocks, lock and resource limits which go away on retry.
+     */
+    TRANSIENT("transient"),
+
+    /**
+     * Any other error.
+     */
+    UNKNOWN("unknown");
+
+    /**
+     * SQL state classes of the transient errors: connection exception, transaction rollback
+     * (serialization failure, deadlock) and insufficient resources (too many connections).
+     */
+    private static final Set<String> TRANSIENT_CLASSES = Set.of("08", "40", "53");
+
+    /**
+     * SQL states of the transient errors: object in use (database accessed by other users), lock not
+     * available, admin shutdown, crash shutdown and cannot connect now. Duplicate objects (user, database,
+     * schema) are caused by a concurrent create, the statements are planned again from the reloaded
+     * catalog.
+     */
+    private static final Set<String> TRANSIENT_STATES = Set.of("55006", "55P03", "57P01", "57P02", "57P03",
+            "42710", "42P04", "42P06");
+
+    /**
+     * SQL state classes of the permanent errors: data exception, invalid authorization, dependent objects
+     * (a user with objects in other databases), invalid catalog name (missing database), syntax error or
+     * access rule violation, like insufficient privilege (42501), syntax error (42601) or undefined object
+     * (42704).
+     */
+    private static final Set<String> PERMANENT_CLASSES = Set.of("22", "28", "2B", "3D", "42");
+
+    private final String tag;
+
+    ErrorClass(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * Returns the class of the error, the first exception in the cause chain with a known type or SQL
+     * state decides.
+     */
+    public static ErrorClass classify(Throwable error) {
+        Throwable tmp = error;
+        while (tmp != null) {
+            if (tmp instanceof InvalidSpecException || tmp instanceof UnknownHostException) {
+                return PERMANENT;
+            }
+            if (tmp instanceof SQLException sql) {
+                ErrorClass result = classify(sql.getSQLState());
+                if (result != UNKNOWN) {
+                    return result;
+                }
+                if (sql instanceof SQLTransientException) {
+                    return TRANSIENT;
+                }
+            }
+            if (tmp.getCause() == tmp) {
+                break;
+            }
+            tmp = tmp.getCause();
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Returns the class of the SQL state.
+     */
+    static ErrorClass classify(String sqlState) {
+        if (sqlState == null || sqlState.length() != 5) {
+            return UNKNOWN;
+        }
+        String stateClass = sqlState.substring(0, 2);
+        if (TRANSIENT_CLASSES.contains(stateClass) || TRANSIENT_STATES.contains(sqlState)) {
+            return TRANSIENT;
+        }
+        if (PERMANENT_CLASSES.contains(stateClass)) {
+            return PERMANENT;
+        }
+        return UNKNOWN;
+    }
+}
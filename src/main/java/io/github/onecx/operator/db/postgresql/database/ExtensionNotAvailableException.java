@@ -0,0 +1,11 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+/**
+ * The extension or the pinned extension version of the spec is not available on the host.
+ */
+public class ExtensionNotAvailableException extends InvalidSpecException {
+
+    public ExtensionNotAvailableException(String msg) {
+        super(msg);
+    }
+}
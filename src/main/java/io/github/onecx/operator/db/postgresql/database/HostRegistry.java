@@ -0,0 +1,235 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.configuration.AgroalConnectionPoolConfiguration;
+import io.agroal.api.configuration.supplier.AgroalConnectionFactoryConfigurationSupplier;
+import io.agroal.api.configuration.supplier.AgroalConnectionPoolConfigurationSupplier;
+import io.agroal.api.configuration.supplier.AgroalDataSourceConfigurationSupplier;
+import io.agroal.api.security.NamePrincipal;
+import io.agroal.api.security.SimplePassword;
+import io.javaoperatorsdk.operator.api.config.ConfigurationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+
+/**
+ * Registry of the PostgreSQL servers served by the operator, mapped by the {@code spec.host} value.
+ */
+@ApplicationScoped
+public class HostRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(HostRegistry.class);
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    HostsConfig hostsConfig;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    DatabaseMetrics metrics;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String databaseAdmin;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.max-concurrent-reconciles", defaultValue = "0")
+    int maxConcurrentReconciles;
+
+    /**
+     * Bound the concurrent reconciles of the hosts without explicit limit by the admin pool size. Busy
+     * hosts reschedule the reconcile instead of blocking a reconcile thread on a pool connection.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.pool-bounded-reconciles", defaultValue = "false")
+    boolean poolBoundedReconciles;
+
+    /**
+     * Reconcile threads of the operator, the admin pools are sized from the concurrent reconciles.
+     */
+    @ConfigProperty(name = "quarkus.operator-sdk.concurrent-reconciliation-threads")
+    Optional<Integer> reconciliationThreads;
+
+    /**
+     * Admin connections in addition to the concurrent reconciles, used by the catalog refresh, the drift
+     * sweep and the teardowns.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.admin-pool.headroom", defaultValue = "2")
+    int adminPoolHeadroom;
+
+    /**
+     * Admin connections opened in the background at startup and kept open, the default {@code 0} opens the
+     * connections on first use.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.admin-pool.warm-up-size", defaultValue = "0")
+    int adminPoolWarmUpSize;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.ddl.max-concurrent", defaultValue = "2")
+    int maxConcurrentDdl;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.ddl.timeout", defaultValue = "PT5M")
+    Duration ddlTimeout;
+
+    private final Map<String, DatabaseHost> hosts = new ConcurrentHashMap<>();
+
+    private final List<AgroalDataSource> dataSources = new ArrayList<>();
+
+    @PostConstruct
+    void init() throws SQLException {
+        // the configured size of the default datasource is the upper bound of all admin pools
+        AgroalConnectionPoolConfiguration defaultPool = dataSource.getConfiguration().connectionPoolConfiguration();
+        int defaultMaxSize = defaultPool.maxSize();
+        int defaultMinSize = defaultPool.minSize();
+        int maxSize = adminPoolSize(maxConcurrentReconciles, defaultMaxSize);
+        int minSize = Math.min(Math.max(defaultMinSize, adminPoolWarmUpSize), maxSize);
+        // the min-size can not exceed the current max-size
+        if (minSize <= defaultMaxSize) {
+            defaultPool.setMinSize(minSize);
+            defaultPool.setMaxSize(maxSize);
+        } else {
+            defaultPool.setMaxSize(maxSize);
+            defaultPool.setMinSize(minSize);
+        }
+
+        DdlBulkhead defaultDdlBulkhead = new DdlBulkhead(defaultHost, maxConcurrentDdl, ddlTimeout, registry);
+        hosts.put(defaultHost, new DatabaseHost(defaultHost, dataSource, databaseAdmin,
+                reconcileLimit(maxConcurrentReconciles, dataSource), defaultDdlBulkhead));
+        for (Map.Entry<String, HostsConfig.HostConfig> e : hostsConfig.hosts().entrySet()) {
+            AgroalDataSource ds = createDataSource(e.getValue(), defaultMaxSize, defaultMinSize);
+            dataSources.add(ds);
+            DdlBulkhead ddlBulkhead = new DdlBulkhead(e.getKey(), e.getValue().maxConcurrentDdl().orElse(maxConcurrentDdl),
+                    ddlTimeout, registry);
+            hosts.put(e.getKey(), new DatabaseHost(e.getKey(), ds, e.getValue().username(),
+                    reconcileLimit(e.getValue().maxConcurrentReconciles().orElse(0), ds), ddlBulkhead));
+        }
+        hosts.values().forEach(h -> metrics.adminPool(h.getName(), h.getDataSource()));
+        hosts.values().forEach(h -> log.info("Database host '{}' admin pool min-size: {} max-size: {}", h.getName(),
+                h.getDataSource().getConfiguration().connectionPoolConfiguration().minSize(),
+                h.getDataSource().getConfiguration().connectionPoolConfiguration().maxSize()));
+        log.info("Registered database hosts: {}", hosts.keySet());
+    }
+
+    /**
+     * Open the warm-up connections of the admin pools in the background, the startup does not wait for
+     * the connections.
+     */
+    void warmUp(@Observes StartupEvent event) {
+        if (adminPoolWarmUpSize <= 0) {
+            return;
+        }
+        hosts.values().forEach(h -> h.getDataSource().flush(AgroalDataSource.FlushMode.FILL));
+        log.info("Warm-up of the admin pools started, connections per host: {}", adminPoolWarmUpSize);
+    }
+
+    @PreDestroy
+    void destroy() {
+        dataSources.forEach(AgroalDataSource::close);
+    }
+
+    /**
+     * Returns {@code true} if the host is served by the operator.
+     */
+    public boolean contains(String host) {
+        return host != null && hosts.containsKey(host);
+    }
+
+    /**
+     * Returns the registered host.
+     *
+     * @param host the {@code spec.host} value
+     * @return the database host
+     * @throws UnknownHostException if the host is not registered
+     */
+    public DatabaseHost host(String host) throws UnknownHostException {
+        DatabaseHost result = host != null ? hosts.get(host) : null;
+        if (result == null) {
+            throw new UnknownHostException("Database host '" + host + "' is not registered");
+        }
+        return result;
+    }
+
+    public Collection<DatabaseHost> hosts() {
+        return Collections.unmodifiableCollection(hosts.values());
+    }
+
+    @Scheduled(every = "${onecx.operator.db.postgresql.catalog.refresh-interval:5m}", concurrentExecution = SKIP)
+    void refreshCatalogs() {
+        hosts.values().forEach(h -> h.getCatalog().refresh());
+    }
+
+    /**
+     * Returns the admin pool size of the host: the concurrent reconciles of the host plus the headroom,
+     * bounded by the configured maximum size.
+     *
+     * @param maxConcurrent the maximum concurrent reconciles of the host, {@code 0} is unlimited
+     * @param maxSize the configured maximum size of the pool
+     */
+    int adminPoolSize(int maxConcurrent, int maxSize) {
+        int threads = reconciliationThreads.orElse(ConfigurationService.DEFAULT_RECONCILIATION_THREADS_NUMBER);
+        return adminPoolSize(threads, maxConcurrent, adminPoolHeadroom, maxSize);
+    }
+
+    static int adminPoolSize(int threads, int maxConcurrent, int headroom, int maxSize) {
+        int concurrent = maxConcurrent > 0 ? Math.min(maxConcurrent, threads) : threads;
+        return Math.max(1, Math.min(concurrent + headroom, maxSize));
+    }
+
+    /**
+     * Returns the maximum concurrent reconciles of the host, the explicit limit wins over the pool size.
+     */
+    private int reconcileLimit(int maxConcurrent, AgroalDataSource ds) {
+        if (maxConcurrent > 0 || !poolBoundedReconciles) {
+            return maxConcurrent;
+        }
+        return ds.getConfiguration().connectionPoolConfiguration().maxSize();
+    }
+
+    private AgroalDataSource createDataSource(HostsConfig.HostConfig config, int defaultMaxSize, int defaultMinSize)
+            throws SQLException {
+        AgroalDataSourceConfigurationSupplier dataSourceConfiguration = new AgroalDataSourceConfigurationSupplier();
+        dataSourceConfiguration.connectionPoolConfiguration(dataSource.getConfiguration().connectionPoolConfiguration());
+        dataSourceConfiguration.metricsEnabled(true);
+
+        AgroalConnectionPoolConfigurationSupplier poolConfiguration = dataSourceConfiguration.connectionPoolConfiguration();
+        poolConfiguration.initialSize(0);
+        int maxSize = adminPoolSize(config.maxConcurrentReconciles().orElse(0), config.maxSize().orElse(defaultMaxSize));
+        poolConfiguration.maxSize(maxSize);
+        poolConfiguration.minSize(Math.min(config.minSize().orElse(Math.max(defaultMinSize, adminPoolWarmUpSize)),
+                maxSize));
+
+        AgroalConnectionFactoryConfigurationSupplier connectionFactoryConfiguration = poolConfiguration
+                .connectionFactoryConfiguration();
+        connectionFactoryConfiguration.jdbcUrl(config.jdbcUrl());
+        connectionFactoryConfiguration.credential(new NamePrincipal(config.username()));
+        connectionFactoryConfiguration.credential(new SimplePassword(config.password()));
+        return AgroalDataSource.from(dataSourceConfiguration.get());
+    }
+
+    public static class UnknownHostException extends Exception {
+
+        public UnknownHostException(String msg) {
+            super(msg);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.Map;
+import java.util.OptionalInt;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithParentName;
+
+/**
+ * Additional PostgreSQL servers served by the operator. The key is the {@code spec.host} value of the
+ * database resources, the server of the {@code onecx.operator.db.postgresql.host} uses the default datasource.
+ */
+@ConfigMapping(prefix = "onecx.operator.db.postgresql.hosts")
+public interface HostsConfig {
+
+    @WithParentName
+    Map<String, HostConfig> hosts();
+
+    interface HostConfig {
+
+        /**
+         * JDBC URL of the admin connection.
+         */
+        String jdbcUrl();
+
+        /**
+         * Admin user name.
+         */
+        String username();
+
+        /**
+         * Admin user password.
+         */
+        String password();
+
+        /**
+         * Minimum size of the admin pool, default is the default datasource configuration or the warm-up size.
+         */
+        OptionalInt minSize();
+
+        /**
+         * Upper bound of the admin pool size, default is the default datasource configuration. The pool is
+         * sized from the concurrent reconciles of the server.
+         */
+        OptionalInt maxSize();
+
+        /**
+         * Maximum number of concurrent reconciles of the server, default is unlimited.
+         */
+        OptionalInt maxConcurrentReconciles();
+
+        /**
+         * Maximum number of concurrent {@code CREATE DATABASE} statements of the server, default is
+         * {@code onecx.operator.db.postgresql.ddl.max-concurrent}.
+         */
+        OptionalInt maxConcurrentDdl();
+
+        /**
+         * Maximum number of concurrent teardowns of the server, default is
+         * {@code onecx.operator.db.postgresql.teardown.max-concurrent}.
+         */
+        OptionalInt maxConcurrentTeardowns();
+    }
+}
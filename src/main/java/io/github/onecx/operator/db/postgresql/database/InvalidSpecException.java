@@ -0,0 +1,11 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+/**
+ * The spec can not be provisioned on the host until the spec changes.
+ */
+public class InvalidSpecException extends Exception {
+
+    public InvalidSpecException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import org.bouncycastle.crypto.digests.MD5Digest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.PKCS5S2ParametersGenerator;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+/**
+ * Client side verification of the password against the stored PostgreSQL password verifier
+ * ({@code pg_authid.rolpassword}). Supported are the {@code SCRAM-SHA-256} and {@code md5} formats.
+ */
+final class PasswordVerifier {
+
+    private static final String SCRAM_PREFIX = "SCRAM-SHA-256$";
+
+    private static final String MD5_PREFIX = "md5";
+
+    private static final byte[] CLIENT_KEY = "Client Key".getBytes(StandardCharsets.UTF_8);
+
+    private PasswordVerifier() {
+    }
+
+    /**
+     * Returns {@code true} if the password matches the stored verifier. Unknown verifier formats or
+     * a missing verifier never match.
+     *
+     * @param verifier the stored verifier
+     * @param user the user name
+     * @param password the password
+     * @return {@code true} if the password matches
+     */
+    static boolean matches(String verifier, String user, byte[] password) {
+        if (verifier == null) {
+            return false;
+        }
+        if (verifier.startsWith(SCRAM_PREFIX)) {
+            return matchesScram(verifier, password);
+        }
+        if (verifier.startsWith(MD5_PREFIX)) {
+            return matchesMd5(verifier, user, password);
+        }
+        return false;
+    }
+
+    /**
+     * Verifier format {@code SCRAM-SHA-256$<iterations>:<salt>$<StoredKey>:<ServerKey>}
+     */
+    private static boolean matchesScram(String verifier, byte[] password) {
+        String[] parts = verifier.substring(SCRAM_PREFIX.length()).split("[$:]");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] storedKey = Base64.getDecoder().decode(parts[2]);
+
+            PKCS5S2ParametersGenerator generator = new PKCS5S2ParametersGenerator(new SHA256Digest());
+            generator.init(password, salt, iterations);
+            byte[] saltedPassword = ((KeyParameter) generator.generateDerivedMacParameters(256)).getKey();
+
+            HMac hmac = new HMac(new SHA256Digest());
+            hmac.init(new KeyParameter(saltedPassword));
+            hmac.update(CLIENT_KEY, 0, CLIENT_KEY.length);
+            byte[] clientKey = new byte[hmac.getMacSize()];
+            hmac.doFinal(clientKey, 0);
+
+            SHA256Digest sha256 = new SHA256Digest();
+            sha256.update(clientKey, 0, clientKey.length);
+            byte[] result = new byte[sha256.getDigestSize()];
+            sha256.doFinal(result, 0);
+
+            return MessageDigest.isEqual(storedKey, result);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Verifier format {@code md5<md5(password + user)>}
+     */
+    private static boolean matchesMd5(String verifier, String user, byte[] password) {
+        byte[] name = user.getBytes(StandardCharsets.UTF_8);
+        MD5Digest md5 = new MD5Digest();
+        md5.update(password, 0, password.length);
+        md5.update(name, 0, name.length);
+        byte[] result = new byte[md5.getDigestSize()];
+        md5.doFinal(result, 0);
+        String expected = MD5_PREFIX + HexFormat.of().formatHex(result);
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                verifier.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,339 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.agroal.api.configuration.AgroalConnectionFactoryConfiguration;
+import io.agroal.api.configuration.AgroalConnectionPoolConfiguration;
+import io.agroal.api.security.SimplePassword;
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.net.PemTrustOptions;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.PgPool;
+import io.vertx.pgclient.SslMode;
+import io.vertx.sqlclient.DatabaseException;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+
+/**
+ * Database service which executes the changes with the Vert.x reactive PostgreSQL client. The
+ * connections are driven by the Vert.x event loop and the pipelined statements are sent without
+ * waiting for the previous result. The reconcile thread waits for the result of each round trip at most
+ * the connect or statement timeout, the catalog snapshot is still loaded with the Agroal admin
+ * datasource of the host. The user pools are cached in the {@link UserDataSourceCache}.
+ */
+@ApplicationScoped
+@LookupIfProperty(name = DatabaseEngine.ENGINE, stringValue = "reactive")
+public class ReactiveDatabaseService extends AbstractDatabaseEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveDatabaseService.class);
+
+    /**
+     * JDBC URL parameters of the driver without effect on the reactive connection.
+     */
+    private static final Set<String> IGNORED_PARAMETERS = Set.of("loggerLevel", "loggerFile", "prepareThreshold",
+            "preparedStatementCacheQueries", "preparedStatementCacheSizeMiB", "defaultRowFetchSize",
+            "reWriteBatchedInserts");
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    UserDataSourceCache userDataSourceCache;
+
+    /**
+     * Maximum wait time for the result of a statement round trip.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.reactive.statement-timeout", defaultValue = "PT5M")
+    Duration statementTimeout;
+
+    private final Map<String, PgPool> adminPools = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    void destroy() {
+        adminPools.values().forEach(PgPool::close);
+        adminPools.clear();
+    }
+
+    @Override
+    void updateAdmin(String uuid, DatabaseHost host, DatabaseSpec spec, byte[] password) throws SQLException {
+        PgPool pool = adminPools.computeIfAbsent(host.getName(), k -> createAdminPool(host));
+        boolean dbExists;
+
+        SqlConnection connection = await(pool.getConnection(), connectTimeout(host));
+        try {
+            log.info("[{}] Open database '{}' connection.", uuid, host.getName());
+
+            SqlBatch batch = new SqlBatch(uuid, pipelined, recorder(host, spec));
+            dbExists = planAdmin(uuid, host, spec, password,
+                    () -> passwordMatches(uuid, host, spec, password, () -> verifier(connection, spec)), batch);
+            batch.execute(connection, statementTimeout);
+        } finally {
+            connection.close();
+            log.info("[{}] Close database connection.", uuid);
+        }
+
+        if (!dbExists) {
+            createDatabase(uuid, host, spec);
+        }
+    }
+
+    @Override
+    void updateUser(String uuid, DatabaseHost host, DatabaseSpec spec, byte[] password) throws SQLException {
+        CatalogSnapshot catalog = host.getCatalog();
+        try (UserDataSourceCache.Lease lease = userDataSourceCache.acquire(host, spec, password,
+                () -> createUserPool(host, spec, password))) {
+            SqlConnection connection = userConnection(host, lease);
+            try {
+                log.info("[{}] Open database '{}' user connection.", uuid, spec.getName());
+
+                SqlBatch batch = new SqlBatch(uuid, pipelined, recorder(host, spec));
+                planUser(host, spec, () -> objects(catalog, spec, connection).schemas(spec.getName()),
+                        () -> objects(catalog, spec, connection).extensions(spec.getName()), batch);
+                batch.execute(connection, statementTimeout);
+            } finally {
+                connection.close();
+            }
+        } finally {
+            log.info("[{}] Close database '{}' user connection.", uuid, spec.getName());
+        }
+    }
+
+    @Override
+    DdlConnection ddlConnection(DatabaseHost host) {
+        PgPool pool = adminPools.computeIfAbsent(host.getName(), k -> createAdminPool(host));
+        return sql -> await(pool.query(sql).execute(), statementTimeout);
+    }
+
+    /**
+     * Load the schemas and extensions of the database with the user connection if they are not in the
+     * snapshot.
+     */
+    private CatalogSnapshot objects(CatalogSnapshot catalog, DatabaseSpec spec, SqlConnection connection)
+            throws SQLException {
+        if (catalog.schemas(spec.getName()) == null) {
+            Future<RowSet<Row>> schemas = connection.query(CatalogSnapshot.SQL_SCHEMAS).execute();
+            Future<RowSet<Row>> extensions = connection.query(CatalogSnapshot.SQL_EXTENSIONS).execute();
+            await(Future.all(schemas, extensions), statementTimeout);
+            Set<String> tmpSchemas = new HashSet<>();
+            schemas.result().forEach(row -> tmpSchemas.add(row.getString(0)));
+            Map<String, String> tmpExtensions = new HashMap<>();
+            extensions.result().forEach(row -> tmpExtensions.put(row.getString(0), row.getString(1)));
+            catalog.objectsLoaded(spec.getName(), tmpSchemas, tmpExtensions);
+        }
+        return catalog;
+    }
+
+    private String verifier(SqlConnection connection, DatabaseSpec spec) throws SQLException {
+        RowSet<Row> rows = await(connection.query(String.format(SQL_USER_PASSWORD, spec.getUser())).execute(),
+                statementTimeout);
+        Iterator<Row> it = rows.iterator();
+        return it.hasNext() ? it.next().getString(0) : null;
+    }
+
+    /**
+     * Get the user connection from the cached user pool, a new pool opens the physical connection.
+     */
+    private SqlConnection userConnection(DatabaseHost host, UserDataSourceCache.Lease lease) throws SQLException {
+        Span span = tracing.start("user-datasource");
+        try (Scope scope = span.makeCurrent()) {
+            return await(((ReactiveUserPool) lease.getPool()).pool().getConnection(), connectTimeout(host));
+        } catch (SQLException ex) {
+            DatabaseTracing.error(span, ex);
+            throw ex;
+        } finally {
+            span.end();
+        }
+    }
+
+    private PgPool createAdminPool(DatabaseHost host) {
+        AgroalConnectionPoolConfiguration poolConfiguration = host.getDataSource().getConfiguration()
+                .connectionPoolConfiguration();
+        AgroalConnectionFactoryConfiguration factoryConfiguration = poolConfiguration.connectionFactoryConfiguration();
+        PgConnectOptions options = connectOptions(host);
+        Principal principal = factoryConfiguration.principal();
+        if (principal != null) {
+            options.setUser(principal.getName());
+        }
+        factoryConfiguration.credentials().stream()
+                .filter(SimplePassword.class::isInstance)
+                .map(c -> ((SimplePassword) c).getWord())
+                .findFirst()
+                .ifPresent(options::setPassword);
+        log.info("Create reactive admin pool for database host '{}'", host.getName());
+        return PgPool.pool(vertx, options, poolOptions(options, poolConfiguration.maxSize()));
+    }
+
+    private ReactiveUserPool createUserPool(DatabaseHost host, DatabaseSpec spec, byte[] password) {
+        PgConnectOptions options = connectOptions(host)
+                .setDatabase(spec.getName())
+                .setUser(spec.getUser())
+                .setPassword(new String(password));
+        PoolOptions poolOptions = poolOptions(options, userDataSourceCache.getPoolMaxSize())
+                .setIdleTimeout((int) userDataSourceCache.getConnectionIdleTimeout().toMillis())
+                .setIdleTimeoutUnit(TimeUnit.MILLISECONDS);
+        return new ReactiveUserPool(PgPool.pool(vertx, options, poolOptions));
+    }
+
+    private static PoolOptions poolOptions(PgConnectOptions options, int maxSize) {
+        return new PoolOptions().setMaxSize(maxSize)
+                .setConnectionTimeout(options.getConnectTimeout())
+                .setConnectionTimeoutUnit(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the connect options of the host JDBC URL.
+     */
+    private PgConnectOptions connectOptions(DatabaseHost host) {
+        String jdbcUrl = host.getDataSource().getConfiguration().connectionPoolConfiguration()
+                .connectionFactoryConfiguration().jdbcUrl();
+        PgConnectOptions options = connectOptions(jdbcUrl);
+        options.setPipeliningLimit(pipelined ? PgConnectOptions.DEFAULT_PIPELINING_LIMIT : 1);
+        return options;
+    }
+
+    /**
+     * Wait time for a connection of the pools of the host.
+     */
+    private Duration connectTimeout(DatabaseHost host) {
+        return Duration.ofMillis(connectOptions(host).getConnectTimeout());
+    }
+
+    /**
+     * Returns the connect options of the JDBC URL. The SSL, timeout and application name parameters of the
+     * JDBC driver are mapped to the options, the SSL mode defaults to {@code prefer} like the JDBC driver.
+     *
+     * @throws IllegalArgumentException if the JDBC URL contains a parameter which is not supported
+     */
+    static PgConnectOptions connectOptions(String jdbcUrl) {
+        PgConnectOptions options = PgConnectOptions.fromUri(reactiveUrl(jdbcUrl));
+        options.setSslMode(SslMode.PREFER);
+        Map<String, String> parameters = parameters(jdbcUrl);
+        String ssl = parameters.remove("ssl");
+        if (ssl != null) {
+            options.setSslMode(Boolean.parseBoolean(ssl) ? SslMode.VERIFY_FULL : SslMode.DISABLE);
+        }
+        for (Map.Entry<String, String> e : parameters.entrySet()) {
+            String value = e.getValue();
+            switch (e.getKey()) {
+                case "sslmode" -> options.setSslMode(SslMode.of(value));
+                case "sslrootcert" -> options.setPemTrustOptions(new PemTrustOptions().addCertPath(value));
+                case "connectTimeout" -> options.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+                case "tcpKeepAlive" -> options.setTcpKeepAlive(Boolean.parseBoolean(value));
+                case "ApplicationName" -> options.addProperty("application_name", value);
+                default -> {
+                    if (!IGNORED_PARAMETERS.contains(e.getKey())) {
+                        throw new IllegalArgumentException("JDBC URL parameter '" + e.getKey()
+                                + "' is not supported by the reactive engine");
+                    }
+                }
+            }
+        }
+        if ((options.getSslMode() == SslMode.VERIFY_CA || options.getSslMode() == SslMode.VERIFY_FULL)
+                && options.getPemTrustOptions() == null) {
+            throw new IllegalArgumentException("JDBC URL parameter 'sslrootcert' is required for the sslmode '"
+                    + options.getSslMode().value + "' of the reactive engine");
+        }
+        if (options.getSslMode() == SslMode.VERIFY_FULL) {
+            options.setHostnameVerificationAlgorithm("HTTPS");
+        } else if (options.getPemTrustOptions() == null) {
+            // the JDBC driver encrypts without certificate check in the modes allow, prefer and require
+            options.setTrustAll(true);
+        }
+        return options;
+    }
+
+    /**
+     * Returns the parameters of the JDBC URL.
+     */
+    static Map<String, String> parameters(String jdbcUrl) {
+        Map<String, String> result = new LinkedHashMap<>();
+        int index = jdbcUrl.indexOf('?');
+        if (index < 0) {
+            return result;
+        }
+        for (String parameter : jdbcUrl.substring(index + 1).split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int eq = parameter.indexOf('=');
+            String name = eq > -1 ? parameter.substring(0, eq) : parameter;
+            String value = eq > -1 ? parameter.substring(eq + 1) : "";
+            result.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    static String reactiveUrl(String jdbcUrl) {
+        String result = jdbcUrl.startsWith("jdbc:") ? jdbcUrl.substring("jdbc:".length()) : jdbcUrl;
+        int index = result.indexOf('?');
+        return index > -1 ? result.substring(0, index) : result;
+    }
+
+    /**
+     * Wait for the result of the reactive operation at most the timeout, database errors are converted to
+     * {@link SQLException} with the SQL state.
+     */
+    static <T> T await(Future<T> future, Duration timeout) throws SQLException {
+        try {
+            return future.toCompletionStage().toCompletableFuture().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw sqlException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new SQLTimeoutException("No result after " + timeout.toMillis() + " ms", ex);
+        }
+    }
+
+    /**
+     * Cached reactive pool of a database user.
+     */
+    private record ReactiveUserPool(PgPool pool) implements UserDataSourceCache.UserPool {
+
+        @Override
+        public long openConnections() {
+            return pool.size();
+        }
+
+        @Override
+        public void close() {
+            pool.close();
+        }
+    }
+
+    static SQLException sqlException(Throwable error) {
+        if (error instanceof SQLException sql) {
+            return sql;
+        }
+        if (error instanceof DatabaseException db) {
+            return new SQLException(db.getMessage(), db.getSqlState(), db.getErrorCode(), db);
+        }
+        return new SQLException(error.getMessage(), error);
+    }
+}
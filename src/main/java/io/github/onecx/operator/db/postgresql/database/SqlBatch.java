@@ -0,0 +1,226 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+
+/**
+ * Independent SQL statements of one reconcile phase. In pipelined mode the statements are sent as one
+ * JDBC batch in a single round trip, otherwise they are executed one after another. Statements which
+ * can not run in a transaction block like {@code CREATE DATABASE} must not be added to the batch.
+ * <p>
+ * The execution window of each statement is passed to the {@link Recorder}, statements of a batch
+ * share the window of the batch round trip.
+ * <p>
+ * On a reactive connection the pipelined statements are sent without waiting for the previous result,
+ * each statement runs in its own implicit transaction.
+ */
+class SqlBatch {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBatch.class);
+
+    private final String uuid;
+
+    private final boolean pipelined;
+
+    private final Recorder recorder;
+
+    private final List<Item> items = new ArrayList<>();
+
+    SqlBatch(String uuid, boolean pipelined, Recorder recorder) {
+        this.uuid = uuid;
+        this.pipelined = pipelined;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Add statement to the batch.
+     *
+     * @param type the statement type
+     * @param sql the SQL statement
+     * @param onSuccess callback executed after the statement was executed
+     * @param message the log message for the executed statement
+     * @param args the log message arguments
+     * @return the batch
+     */
+    SqlBatch add(SqlStatement type, String sql, Runnable onSuccess, String message, Object... args) {
+        items.add(new Item(type, sql, onSuccess, message, args));
+        return this;
+    }
+
+    SqlBatch add(SqlStatement type, String sql, String message, Object... args) {
+        return add(type, sql, null, message, args);
+    }
+
+    boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    void execute(Statement statement) throws SQLException {
+        if (items.isEmpty()) {
+            return;
+        }
+        if (!pipelined || items.size() == 1) {
+            for (Item item : items) {
+                long start = System.nanoTime();
+                try {
+                    statement.execute(item.sql);
+                } catch (SQLException ex) {
+                    recorder.record(item.type, start, System.nanoTime(), 1, false);
+                    throw ex;
+                }
+                recorder.record(item.type, start, System.nanoTime(), 1, true);
+                success(item);
+            }
+            return;
+        }
+
+        for (Item item : items) {
+            statement.addBatch(item.sql);
+        }
+        long start = System.nanoTime();
+        try {
+            statement.executeBatch();
+        } catch (BatchUpdateException ex) {
+            int failed = failedIndex(ex.getUpdateCounts());
+            if (failed < items.size()) {
+                recorder.record(items.get(failed).type, start, System.nanoTime(), items.size(), false);
+            }
+            for (int i = failed; i < items.size(); i++) {
+                Item item = items.get(i);
+                log.error("[{}] Batch statement {}/{} {}: " + item.message, args(item, i + 1, items.size(),
+                        i == failed ? "failed" : "not executed"));
+            }
+            // batch is executed in one implicit transaction, all previous statements are rolled back
+            SQLException next = ex.getNextException();
+            throw next != null ? next : ex;
+        } finally {
+            statement.clearBatch();
+        }
+        long end = System.nanoTime();
+        log.info("[{}] Executed batch of {} statements in one round trip in {} ms", uuid, items.size(),
+                TimeUnit.NANOSECONDS.toMillis(end - start));
+        for (Item item : items) {
+            recorder.record(item.type, start, end, items.size(), true);
+            success(item);
+        }
+    }
+
+    /**
+     * Execute the batch with the reactive connection, every round trip waits at most the timeout.
+     */
+    void execute(SqlConnection connection, Duration timeout) throws SQLException {
+        if (items.isEmpty()) {
+            return;
+        }
+        if (!pipelined || items.size() == 1) {
+            for (Item item : items) {
+                long start = System.nanoTime();
+                try {
+                    ReactiveDatabaseService.await(connection.query(item.sql).execute(), timeout);
+                } catch (SQLException ex) {
+                    recorder.record(item.type, start, System.nanoTime(), 1, false);
+                    throw ex;
+                }
+                recorder.record(item.type, start, System.nanoTime(), 1, true);
+                success(item);
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<Future<RowSet<Row>>> results = new ArrayList<>();
+        for (Item item : items) {
+            results.add(connection.query(item.sql).execute());
+        }
+        try {
+            ReactiveDatabaseService.await(Future.join(results), timeout);
+        } catch (SQLException ex) {
+            // failed statements are handled below
+        }
+        long end = System.nanoTime();
+        SQLException error = null;
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            Future<RowSet<Row>> result = results.get(i);
+            if (result.succeeded()) {
+                recorder.record(item.type, start, end, items.size(), true);
+                success(item);
+            } else {
+                recorder.record(item.type, start, end, items.size(), false);
+                log.error("[{}] Pipelined statement {}/{} {}: " + item.message, args(item, i + 1, items.size(), "failed"));
+                if (error == null) {
+                    error = ReactiveDatabaseService.sqlException(result.cause());
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        log.info("[{}] Executed pipeline of {} statements in one round trip in {} ms", uuid, items.size(),
+                TimeUnit.NANOSECONDS.toMillis(end - start));
+    }
+
+    private void success(Item item) {
+        if (item.onSuccess != null) {
+            item.onSuccess.run();
+        }
+        log.info("[{}] " + item.message, args(item));
+    }
+
+    private Object[] args(Item item, Object... prefix) {
+        Object[] result = new Object[1 + prefix.length + item.args.length];
+        result[0] = uuid;
+        System.arraycopy(prefix, 0, result, 1, prefix.length);
+        System.arraycopy(item.args, 0, result, 1 + prefix.length, item.args.length);
+        return result;
+    }
+
+    private static int failedIndex(int[] counts) {
+        if (counts == null) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return counts.length;
+    }
+
+    /**
+     * Receiver of the statement durations.
+     */
+    @FunctionalInterface
+    interface Recorder {
+
+        Recorder NONE = (type, start, end, batchSize, success) -> {
+        };
+
+        /**
+         * Record the executed statement.
+         *
+         * @param type the statement type
+         * @param start the start of the execution ({@link System#nanoTime()})
+         * @param end the end of the execution ({@link System#nanoTime()})
+         * @param batchSize the number of statements executed in the same round trip
+         * @param success {@code true} if the statement was executed
+         */
+        void record(SqlStatement type, long start, long end, int batchSize, boolean success);
+    }
+
+    private record Item(SqlStatement type, String sql, Runnable onSuccess, String message, Object[] args) {
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+/**
+ * SQL statement types of the reconcile, used as the {@code statement} metric tag.
+ */
+enum SqlStatement {
+
+    CHECK_USER("check-user"),
+
+    CREATE_USER("create-user"),
+
+    ALTER_USER("alter-user"),
+
+    CREATE_DATABASE("create-database"),
+
+    CREATE_TEMPLATE("create-template"),
+
+    ALTER_DATABASE("alter-database"),
+
+    GRANT("grant"),
+
+    CREATE_SCHEMA("create-schema"),
+
+    SEARCH_PATH("search-path"),
+
+    CREATE_EXTENSION("create-extension"),
+
+    ALTER_EXTENSION("alter-extension"),
+
+    REVOKE("revoke"),
+
+    TERMINATE_BACKENDS("terminate-backends"),
+
+    DROP_DATABASE("drop-database"),
+
+    REASSIGN_OWNED("reassign-owned"),
+
+    DROP_OWNED("drop-owned"),
+
+    DROP_USER("drop-user");
+
+    private final String tag;
+
+    SqlStatement(String tag) {
+        this.tag = tag;
+    }
+
+    String tag() {
+        return tag;
+    }
+}
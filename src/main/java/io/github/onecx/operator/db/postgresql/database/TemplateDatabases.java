@@ -0,0 +1,193 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.configuration.supplier.AgroalConnectionPoolConfigurationSupplier;
+import io.agroal.api.configuration.supplier.AgroalDataSourceConfigurationSupplier;
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+
+/**
+ * Template databases managed by the operator. A template is created on the host before the first
+ * database is copied from it and the configured extensions are installed with the admin user. The new
+ * databases are created with {@code CREATE DATABASE ... TEMPLATE} and contain the extensions without
+ * any statement on the user connection.
+ */
+@ApplicationScoped
+public class TemplateDatabases {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateDatabases.class);
+
+    /**
+     * SQL to create a template database, every user with {@code CREATEDB} can copy it.
+     */
+    static final String SQL_CREATE_TEMPLATE = "CREATE DATABASE %s IS_TEMPLATE true";
+
+    @Inject
+    TemplatesConfig templatesConfig;
+
+    @Inject
+    DatabaseMetrics metrics;
+
+    @Inject
+    DatabaseTracing tracing;
+
+    /**
+     * Templates of the hosts which are prepared by this operator.
+     */
+    private final Set<String> prepared = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Running preparations of the templates of the hosts, other reconciles of the same template wait for
+     * the result.
+     */
+    private final Map<String, CompletableFuture<Void>> preparing = new ConcurrentHashMap<>();
+
+    /**
+     * Returns {@code true} if the template is managed by the operator.
+     */
+    public boolean managed(String template) {
+        return template != null && templatesConfig.templates().containsKey(template);
+    }
+
+    /**
+     * Create the managed template of the spec on the host and install the extensions. The template is
+     * prepared once per host and again if it was dropped, unmanaged templates must exist on the server.
+     * Concurrent reconciles of the same template and host wait for the running preparation, other templates
+     * and hosts are not blocked.
+     */
+    public void prepare(String uuid, DatabaseHost host, DatabaseSpec spec) throws SQLException {
+        String template = spec.getTemplate();
+        if (!managed(template) || prepared(host, template)) {
+            return;
+        }
+        String key = key(host, template);
+        CompletableFuture<Void> own = new CompletableFuture<>();
+        CompletableFuture<Void> running = preparing.putIfAbsent(key, own);
+        if (running != null) {
+            await(running);
+            return;
+        }
+        try {
+            if (!prepared(host, template)) {
+                prepare(uuid, host, spec, template);
+            }
+            own.complete(null);
+        } catch (SQLException | RuntimeException ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            preparing.remove(key, own);
+        }
+    }
+
+    /**
+     * Create the template if it does not exist and install the extensions.
+     */
+    private void prepare(String uuid, DatabaseHost host, DatabaseSpec spec, String template) throws SQLException {
+        List<String> extensions = templatesConfig.templates().get(template).extensions();
+        CatalogSnapshot catalog = host.getCatalog();
+
+        if (catalog.databaseOwner(template) == null) {
+            try (Connection connection = host.getDataSource().getConnection();
+                    Statement statement = connection.createStatement()) {
+                // create database, can not be executed in a transaction block
+                execute(host, spec, SqlStatement.CREATE_TEMPLATE, statement,
+                        String.format(SQL_CREATE_TEMPLATE, template));
+                log.info("[{}] Create template database '{}'", uuid, template);
+            } catch (SQLException ex) {
+                // created concurrently by another replica
+                if (!AbstractDatabaseEngine.SQL_STATE_DUPLICATE_DATABASE.equals(ex.getSQLState())) {
+                    throw ex;
+                }
+            }
+            catalog.databaseOwnerChanged(template, host.getAdmin());
+        }
+
+        // the copy fails while a session is connected to the template, the datasource is closed after use
+        try (AgroalDataSource dataSource = templateDataSource(host, template);
+                Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            for (String extension : extensions) {
+                execute(host, spec, SqlStatement.CREATE_EXTENSION, statement,
+                        String.format(AbstractDatabaseEngine.SQL_USER_EXTENSION, extension));
+            }
+        }
+        log.info("[{}] Template database '{}' prepared with extensions {}", uuid, template, extensions);
+        prepared.add(key(host, template));
+    }
+
+    /**
+     * Wait for the preparation of another reconcile, the error of the preparation is thrown.
+     */
+    private static void await(CompletableFuture<Void> running) throws SQLException {
+        try {
+            running.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new SQLException(ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    /**
+     * Returns {@code true} if the template was prepared and still exists in the catalog snapshot.
+     */
+    private boolean prepared(DatabaseHost host, String template) throws SQLException {
+        return prepared.contains(key(host, template)) && host.getCatalog().databaseOwner(template) != null;
+    }
+
+    private void execute(DatabaseHost host, DatabaseSpec spec, SqlStatement type, Statement statement, String sql)
+            throws SQLException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            statement.execute(sql);
+            success = true;
+        } finally {
+            long end = System.nanoTime();
+            metrics.statement(host.getName(), type, end - start, success);
+            tracing.statement(host.getName(), spec.getName(), type, start, end, 1, success);
+        }
+    }
+
+    /**
+     * Datasource of the template database with the admin credentials and one connection.
+     */
+    private static AgroalDataSource templateDataSource(DatabaseHost host, String template) throws SQLException {
+        AgroalDataSource dataSource = host.getDataSource();
+        AgroalDataSourceConfigurationSupplier dataSourceConfiguration = new AgroalDataSourceConfigurationSupplier();
+        dataSourceConfiguration.connectionPoolConfiguration(dataSource.getConfiguration().connectionPoolConfiguration());
+        String jdbcUrl = dataSource.getConfiguration().connectionPoolConfiguration().connectionFactoryConfiguration().jdbcUrl();
+
+        AgroalConnectionPoolConfigurationSupplier poolConfiguration = dataSourceConfiguration.connectionPoolConfiguration();
+        poolConfiguration.initialSize(0);
+        poolConfiguration.minSize(0);
+        poolConfiguration.maxSize(1);
+        poolConfiguration.connectionFactoryConfiguration()
+                .jdbcUrl(AbstractDatabaseEngine.createJdbcUrl(jdbcUrl, template));
+        return AgroalDataSource.from(dataSourceConfiguration.get());
+    }
+
+    private static String key(DatabaseHost host, String template) {
+        return host.getName() + "/" + template;
+    }
+}
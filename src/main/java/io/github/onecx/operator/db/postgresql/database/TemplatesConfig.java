@@ -0,0 +1,26 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.List;
+import java.util.Map;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithParentName;
+
+/**
+ * Template databases managed by the operator. The key is the name of the template database which is
+ * referenced by the {@code spec.template} value of the database resources.
+ */
+@ConfigMapping(prefix = "onecx.operator.db.postgresql.templates")
+public interface TemplatesConfig {
+
+    @WithParentName
+    Map<String, TemplateConfig> templates();
+
+    interface TemplateConfig {
+
+        /**
+         * Extensions installed in the template database.
+         */
+        List<String> extensions();
+    }
+}
@@ -0,0 +1,359 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.configuration.supplier.AgroalConnectionFactoryConfigurationSupplier;
+import io.agroal.api.configuration.supplier.AgroalConnectionPoolConfigurationSupplier;
+import io.agroal.api.configuration.supplier.AgroalDataSourceConfigurationSupplier;
+import io.agroal.api.security.NamePrincipal;
+import io.agroal.api.security.SimplePassword;
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+
+/**
+ * Bounded cache of the user datasources keyed by host, database, user and password fingerprint.
+ * Entries are evicted in LRU order when the cache is full, after the idle timeout and
+ * when the password of the database user changes. The JDBC engine caches Agroal datasources, the
+ * reactive engine caches its own {@link UserPool}. The connections of a cached pool are closed after the
+ * short connection idle timeout, an idle cached pool holds no server connection.
+ */
+@ApplicationScoped
+public class UserDataSourceCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDataSourceCache.class);
+
+    private static final String METRIC_PREFIX = "onecx.operator.db.postgresql.user.datasource";
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.user-datasource.max-size", defaultValue = "20")
+    int maxSize;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.user-datasource.idle-timeout", defaultValue = "PT10M")
+    Duration idleTimeout;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.user-datasource.pool-max-size", defaultValue = "2")
+    int poolMaxSize;
+
+    /**
+     * Idle time after which a connection of a user pool is closed, the pool itself stays cached.
+     */
+    @ConfigProperty(name = "onecx.operator.db.postgresql.user-datasource.connection-idle-timeout", defaultValue = "PT30S")
+    Duration connectionIdleTimeout;
+
+    /**
+     * Access ordered map, the first entry is the least recently used one.
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private Counter hits;
+
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        hits = registry.counter(METRIC_PREFIX + ".cache", "result", "hit");
+        misses = registry.counter(METRIC_PREFIX + ".cache", "result", "miss");
+        registry.gauge(METRIC_PREFIX + ".cache.size", this, UserDataSourceCache::size);
+        registry.gauge(METRIC_PREFIX + ".connections.open", this, UserDataSourceCache::openConnections);
+    }
+
+    /**
+     * Acquire the user datasource for the database spec. The returned lease must be closed after use.
+     *
+     * @param host the database host
+     * @param spec the database spec
+     * @param password the user password
+     * @return the datasource lease
+     * @throws SQLException if the datasource could not be created
+     */
+    public Lease acquire(DatabaseHost host, DatabaseSpec spec, byte[] password) throws SQLException {
+        return acquire(host, spec, password, () -> new DataSourcePool(createUserDatasource(host, spec, password)));
+    }
+
+    /**
+     * Acquire the user pool for the database spec, a missing pool is created with the factory. The
+     * returned lease must be closed after use.
+     *
+     * @param factory creates the user pool with the configured pool size
+     * @return the pool lease
+     * @throws SQLException if the pool could not be created
+     */
+    public Lease acquire(DatabaseHost host, DatabaseSpec spec, byte[] password, UserPoolFactory factory)
+            throws SQLException {
+        Key key = new Key(host.getName(), spec.getName(), spec.getUser());
+        String fingerprint = fingerprint(password);
+        List<Entry> evicted = new ArrayList<>();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && !entry.fingerprint.equals(fingerprint)) {
+                log.info("Password changed for user '{}' database '{}' host '{}', evict user datasource", key.user,
+                        key.database, key.host);
+                evicted.add(remove(key, "password"));
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                entry = new Entry(fingerprint, factory.create());
+                entries.put(key, entry);
+                evicted.addAll(evictOverflow());
+            } else {
+                hits.increment();
+            }
+            entry.leases++;
+            entry.lastUsed = System.nanoTime();
+        }
+        close(evicted);
+        return new Lease(entry);
+    }
+
+    /**
+     * Remove and close all user datasources of the database.
+     *
+     * @param host the database host
+     * @param database the database name
+     */
+    public void invalidate(String host, String database) {
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (entries) {
+            List<Key> keys = entries.keySet().stream()
+                    .filter(k -> k.host.equals(host) && k.database.equals(database))
+                    .toList();
+            keys.forEach(k -> evicted.add(remove(k, "invalidate")));
+        }
+        close(evicted);
+    }
+
+    @Scheduled(every = "${onecx.operator.db.postgresql.user-datasource.eviction-interval:60s}", concurrentExecution = SKIP)
+    void evictIdle() {
+        long limit = System.nanoTime() - idleTimeout.toNanos();
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (entries) {
+            List<Key> keys = entries.entrySet().stream()
+                    .filter(e -> e.getValue().leases == 0 && e.getValue().lastUsed - limit < 0)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            keys.forEach(k -> evicted.add(remove(k, "idle")));
+        }
+        if (!evicted.isEmpty()) {
+            log.info("Evict '{}' idle user datasources", evicted.size());
+        }
+        close(evicted);
+    }
+
+    @PreDestroy
+    void destroy() {
+        List<Entry> evicted;
+        synchronized (entries) {
+            evicted = new ArrayList<>(entries.values());
+            evicted.forEach(e -> e.retired = true);
+            entries.clear();
+        }
+        close(evicted);
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long openConnections() {
+        synchronized (entries) {
+            return entries.values().stream()
+                    .mapToLong(e -> e.pool.openConnections())
+                    .sum();
+        }
+    }
+
+    private List<Entry> evictOverflow() {
+        List<Entry> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            it.remove();
+            registry.counter(METRIC_PREFIX + ".cache.evictions", "cause", "size").increment();
+            e.getValue().retired = true;
+            evicted.add(e.getValue());
+        }
+        return evicted;
+    }
+
+    private Entry remove(Key key, String cause) {
+        Entry entry = entries.remove(key);
+        registry.counter(METRIC_PREFIX + ".cache.evictions", "cause", cause).increment();
+        entry.retired = true;
+        return entry;
+    }
+
+    /**
+     * Close the retired datasources which are not leased anymore. Leased datasources
+     * are closed by the last lease.
+     */
+    private void close(List<Entry> retired) {
+        List<Entry> unused;
+        synchronized (entries) {
+            unused = retired.stream().filter(e -> e.leases == 0 && !e.closed).toList();
+            unused.forEach(e -> e.closed = true);
+        }
+        unused.forEach(e -> e.pool.close());
+    }
+
+    private AgroalDataSource createUserDatasource(DatabaseHost host, DatabaseSpec spec, byte[] password)
+            throws SQLException {
+
+        AgroalDataSource dataSource = host.getDataSource();
+        AgroalDataSourceConfigurationSupplier dataSourceConfiguration = new AgroalDataSourceConfigurationSupplier();
+
+        dataSourceConfiguration.connectionPoolConfiguration(dataSource.getConfiguration().connectionPoolConfiguration());
+        dataSourceConfiguration.metricsEnabled(true);
+        String jdbcUrl = dataSource.getConfiguration().connectionPoolConfiguration().connectionFactoryConfiguration().jdbcUrl();
+        jdbcUrl = DatabaseService.createJdbcUrl(jdbcUrl, spec.getName());
+
+        AgroalConnectionPoolConfigurationSupplier poolConfiguration = dataSourceConfiguration.connectionPoolConfiguration();
+        poolConfiguration.initialSize(0);
+        poolConfiguration.minSize(0);
+        poolConfiguration.maxSize(poolMaxSize);
+        // the admin pool keeps its connections, the user connections are closed soon after the reconcile
+        poolConfiguration.reapTimeout(connectionIdleTimeout);
+        AgroalConnectionFactoryConfigurationSupplier connectionFactoryConfiguration = poolConfiguration
+                .connectionFactoryConfiguration();
+
+        connectionFactoryConfiguration.jdbcUrl(jdbcUrl);
+        connectionFactoryConfiguration.credential(new NamePrincipal(spec.getUser()));
+        connectionFactoryConfiguration.credential(new SimplePassword(new String(password)));
+        return AgroalDataSource.from(dataSourceConfiguration.get());
+    }
+
+    static String fingerprint(byte[] password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(password));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Maximum connections of one user pool.
+     */
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    /**
+     * Idle time after which a connection of one user pool is closed.
+     */
+    public Duration getConnectionIdleTimeout() {
+        return connectionIdleTimeout;
+    }
+
+    /**
+     * Pool of the connections of one database user.
+     */
+    public interface UserPool {
+
+        long openConnections();
+
+        void close();
+    }
+
+    @FunctionalInterface
+    public interface UserPoolFactory {
+
+        UserPool create() throws SQLException;
+    }
+
+    private record DataSourcePool(AgroalDataSource dataSource) implements UserPool {
+
+        @Override
+        public long openConnections() {
+            return dataSource.getMetrics().activeCount() + dataSource.getMetrics().availableCount();
+        }
+
+        @Override
+        public void close() {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Lease of the cached user datasource.
+     */
+    public class Lease implements AutoCloseable {
+
+        private final Entry entry;
+
+        Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public Connection getConnection() throws SQLException {
+            if (entry.pool instanceof DataSourcePool tmp) {
+                return tmp.dataSource.getConnection();
+            }
+            throw new IllegalStateException("User pool is not a JDBC datasource");
+        }
+
+        public UserPool getPool() {
+            return entry.pool;
+        }
+
+        @Override
+        public void close() {
+            boolean retired;
+            synchronized (entries) {
+                entry.leases--;
+                entry.lastUsed = System.nanoTime();
+                retired = entry.retired;
+            }
+            if (retired) {
+                UserDataSourceCache.this.close(List.of(entry));
+            }
+        }
+    }
+
+    private record Key(String host, String database, String user) {
+    }
+
+    private static class Entry {
+
+        final String fingerprint;
+
+        final UserPool pool;
+
+        int leases;
+
+        long lastUsed;
+
+        boolean retired;
+
+        boolean closed;
+
+        Entry(String fingerprint, UserPool pool) {
+            this.fingerprint = fingerprint;
+            this.pool = pool;
+        }
+    }
+}
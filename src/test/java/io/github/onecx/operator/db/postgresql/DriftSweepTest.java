@@ -0,0 +1,90 @@
+package io.github.onecx.operator.db.postgresql;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.agroal.api.AgroalDataSource;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.github.onecx.operator.db.postgresql.database.HostRegistry;
+import io.javaoperatorsdk.operator.Operator;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class DriftSweepTest {
+
+    @Inject
+    Operator operator;
+
+    @Inject
+    KubernetesClient client;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @Inject
+    DriftSweep driftSweep;
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String databaseAdmin;
+
+    @Test
+    void ownerDriftTest() throws Exception {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("drift_database");
+        spec.setUser("drift_user");
+        spec.setHost(defaultHost);
+        spec.setSchema("drift_schema");
+        spec.setPasswordKey("pk");
+        spec.setPasswordSecrets("drift-1");
+
+        operator.start();
+
+        Secret secret = new Secret();
+        secret.setMetadata(new ObjectMetaBuilder().withName(spec.getPasswordSecrets())
+                .withNamespace(client.getNamespace()).build());
+        secret.setData(Map.of(spec.getPasswordKey(), Base64.getEncoder().encodeToString("drift_password".getBytes())));
+        client.resource(secret).serverSideApply();
+
+        PostgreSQLDatabase database = new PostgreSQLDatabase();
+        database.setMetadata(new ObjectMetaBuilder().withName("drift-1").withNamespace(client.getNamespace()).build());
+        database.setSpec(spec);
+        client.resource(database).serverSideApply();
+
+        await().pollDelay(1, SECONDS).atMost(30, SECONDS).untilAsserted(() -> {
+            PostgreSQLDatabase result = client.resource(database).get();
+            Assertions.assertNotNull(result.getStatus());
+            Assertions.assertEquals(PostgreSQLReconciler.STATUS_CREATED, result.getStatus().getStatus());
+        });
+
+        // out-of-band change of the database owner
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER DATABASE drift_database OWNER TO " + databaseAdmin);
+        }
+
+        await().atMost(10, SECONDS).until(() -> driftSweep.sweep() > 0);
+
+        await().atMost(30, SECONDS).untilAsserted(() -> {
+            hostRegistry.host(defaultHost).getCatalog().refresh();
+            Assertions.assertEquals("drift_user", hostRegistry.host(defaultHost).getCatalog().databaseOwner("drift_database"));
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.onecx.operator.db.postgresql;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+
+/**
+ * Cost of the reconciler steps without database access: secret decoding, event filters, fingerprint
+ * and status construction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Donecx.operator.db.postgresql.host=benchmark")
+public class PostgreSQLReconcilerBenchmark {
+
+    @Param({ "1", "20" })
+    int secretKeys;
+
+    PostgreSQLDatabase database;
+
+    PostgreSQLDatabase other;
+
+    Secret secret;
+
+    PostgreSQLReconciler.SecretAddFilter addFilter;
+
+    PostgreSQLReconciler.SecretUpdateFilter updateFilter;
+
+    @Setup
+    public void setup() {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setHost("benchmark");
+        spec.setName("benchmark_database");
+        spec.setUser("benchmark_user");
+        spec.setSchema("benchmark_schema");
+        spec.setUserSearchPath("benchmark_schema,public");
+        spec.setExtensions(List.of("seg", "cube"));
+        spec.setPasswordKey("pk");
+        spec.setPasswordSecrets("benchmark-secret");
+
+        database = new PostgreSQLDatabase();
+        database.setMetadata(new ObjectMetaBuilder().withName("benchmark").withNamespace("benchmark").build());
+        database.setSpec(spec);
+
+        DatabaseSpec otherSpec = new DatabaseSpec();
+        otherSpec.setHost("other");
+        other = new PostgreSQLDatabase();
+        other.setMetadata(new ObjectMetaBuilder().withName("other").withNamespace("benchmark").build());
+        other.setSpec(otherSpec);
+
+        Map<String, String> data = new HashMap<>();
+        for (int i = 1; i < secretKeys; i++) {
+            data.put("key-" + i, Base64.getEncoder().encodeToString(("value-" + i).getBytes()));
+        }
+        data.put("pk", Base64.getEncoder().encodeToString("benchmark_password_0123456789".getBytes()));
+        secret = new Secret();
+        secret.setMetadata(new ObjectMetaBuilder().withName("benchmark-secret").withNamespace("benchmark")
+                .withUid("5f0c1a9e-2c4b-4d8e-9c51-0b7e3f6a2d11").withResourceVersion("123456").build());
+        secret.setData(data);
+
+        Set<String> hosts = Set.of("benchmark");
+        addFilter = new PostgreSQLReconciler.SecretAddFilter(hosts::contains);
+        updateFilter = new PostgreSQLReconciler.SecretUpdateFilter(hosts::contains);
+    }
+
+    @Benchmark
+    public byte[] createRequestData() throws Exception {
+        return PostgreSQLReconciler.createRequestData(database.getSpec(), secret);
+    }
+
+    @Benchmark
+    public boolean addFilter() {
+        return addFilter.accept(database) & addFilter.accept(other);
+    }
+
+    @Benchmark
+    public boolean updateFilter() {
+        return updateFilter.accept(database, database) & updateFilter.accept(other, other);
+    }
+
+    @Benchmark
+    public String createFingerprint() {
+        return PostgreSQLReconciler.createFingerprint(database.getSpec(), secret);
+    }
+
+    @Benchmark
+    public boolean createStatus() {
+        return PostgreSQLReconciler.isStatusUnchanged(database,
+                PostgreSQLReconciler.createStatus(database.getSpec(), "fingerprint"));
+    }
+}
@@ -1,10 +1,13 @@
 package io.github.onecx.operator.db.postgresql;
 
+import java.sql.SQLException;
+
 import jakarta.inject.Inject;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import io.github.onecx.operator.db.postgresql.database.ErrorClass;
 import io.quarkus.test.junit.QuarkusTest;
 
 @QuarkusTest
@@ -23,4 +26,16 @@ class PostgreSQLReconcilerExceptionTest {
         Assertions.assertEquals("ERROR: Custom error", status.getStatus());
     }
 
+    @Test
+    void classifyTest() {
+        Assertions.assertEquals(ErrorClass.PERMANENT, PostgreSQLReconciler.classify(
+                new PostgreSQLReconciler.ReconcileException("1",
+                        new PostgreSQLReconciler.MissingMandatoryKeyException("Secret key is mandatory"))));
+        Assertions.assertEquals(ErrorClass.TRANSIENT, PostgreSQLReconciler.classify(
+                new PostgreSQLReconciler.ReconcileException("2", new SQLException("connection refused", "08001"))));
+        Assertions.assertEquals(ErrorClass.PERMANENT, PostgreSQLReconciler.classify(
+                new PostgreSQLReconciler.ReconcileException("3", new SQLException("permission denied", "42501"))));
+        Assertions.assertEquals(ErrorClass.UNKNOWN, PostgreSQLReconciler.classify(new RuntimeException("Custom error")));
+    }
+
 }
@@ -0,0 +1,37 @@
+package io.github.onecx.operator.db.postgresql;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class PostgreSQLReconcilerFingerprintTest {
+
+    @Test
+    void fingerprintTest() {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("fingerprint_database");
+        spec.setUser("fingerprint_user");
+        spec.setPasswordKey("pk");
+        spec.setPasswordSecrets("fingerprint-secret");
+        spec.setExtensions(List.of("seg"));
+
+        Secret secret = new Secret();
+        secret.setMetadata(new ObjectMetaBuilder().withName("fingerprint-secret").withUid("1").withResourceVersion("1").build());
+
+        String fingerprint = PostgreSQLReconciler.createFingerprint(spec, secret);
+        Assertions.assertEquals(fingerprint, PostgreSQLReconciler.createFingerprint(spec, secret));
+
+        secret.getMetadata().setResourceVersion("2");
+        String secretChanged = PostgreSQLReconciler.createFingerprint(spec, secret);
+        Assertions.assertNotEquals(fingerprint, secretChanged);
+
+        spec.setExtensions(List.of("seg", "cube"));
+        Assertions.assertNotEquals(secretChanged, PostgreSQLReconciler.createFingerprint(spec, secret));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.onecx.operator.db.postgresql;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class PostgreSQLReconcilerStatusTest {
+
+    @Test
+    void statusUnchangedTest() {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("status_database");
+        spec.setUser("status_user");
+        spec.setPasswordSecrets("status-secret");
+
+        PostgreSQLDatabase database = new PostgreSQLDatabase();
+        database.setMetadata(new ObjectMetaBuilder().withName("status-1").withGeneration(1L).build());
+        database.setSpec(spec);
+
+        DatabaseStatus status = PostgreSQLReconciler.createStatus(spec, "fingerprint");
+        Assertions.assertFalse(PostgreSQLReconciler.isStatusUnchanged(database, status));
+
+        DatabaseStatus current = PostgreSQLReconciler.createStatus(spec, "fingerprint");
+        current.setObservedGeneration(1L);
+        database.setStatus(current);
+        Assertions.assertTrue(PostgreSQLReconciler.isStatusUnchanged(database, status));
+
+        // new generation is not observed yet
+        database.getMetadata().setGeneration(2L);
+        Assertions.assertFalse(PostgreSQLReconciler.isStatusUnchanged(database, status));
+        database.getMetadata().setGeneration(1L);
+
+        Assertions.assertFalse(PostgreSQLReconciler.isStatusUnchanged(database,
+                PostgreSQLReconciler.createStatus(spec, "changed")));
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.onecx.operator.db.postgresql;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.github.onecx.operator.db.postgresql.database.DatabaseTracing;
+import io.javaoperatorsdk.operator.Operator;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class PostgreSQLReconcilerTracingTest {
+
+    @Inject
+    Operator operator;
+
+    @Inject
+    KubernetesClient client;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @Inject
+    InMemorySpanExporter exporter;
+
+    @Test
+    void reconcileSpanTreeTest() {
+        String name = "tracing-1";
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("tracing_database");
+        spec.setUser("tracing_user");
+        spec.setHost(defaultHost);
+        spec.setSchema("tracing_schema");
+        spec.setPasswordKey("pk");
+        spec.setPasswordSecrets("tracing-1");
+
+        operator.start();
+
+        PostgreSQLDatabase database = new PostgreSQLDatabase();
+        database.setMetadata(new ObjectMetaBuilder().withName(name).withNamespace(client.getNamespace()).build());
+        database.setSpec(spec);
+
+        Secret secret = new Secret();
+        secret.setMetadata(new ObjectMetaBuilder().withName(spec.getPasswordSecrets())
+                .withNamespace(client.getNamespace()).build());
+        secret.setData(Map.of(spec.getPasswordKey(),
+                Base64.getEncoder().encodeToString("tracing_password".getBytes())));
+
+        client.resource(database).serverSideApply();
+        client.resource(secret).serverSideApply();
+
+        await().atMost(20, SECONDS).untilAsserted(() -> {
+            SpanData reconcile = exporter.getFinishedSpanItems().stream()
+                    .filter(s -> s.getName().equals("reconcile"))
+                    .filter(s -> name.equals(s.getAttributes().get(DatabaseTracing.RESOURCE_NAME)))
+                    .findFirst()
+                    .orElseThrow();
+
+            List<SpanData> trace = exporter.getFinishedSpanItems().stream()
+                    .filter(s -> s.getTraceId().equals(reconcile.getTraceId()))
+                    .toList();
+            Set<String> names = trace.stream().map(SpanData::getName).collect(Collectors.toSet());
+            Assertions.assertTrue(names.containsAll(Set.of("secret-decode", "admin", "user", "user-datasource",
+                    "status", "create-user", "create-database", "create-schema")), "Spans: " + names);
+
+            SpanData admin = trace.stream().filter(s -> s.getName().equals("admin")).findFirst().orElseThrow();
+            Assertions.assertEquals(reconcile.getSpanId(), admin.getParentSpanId());
+            SpanData createUser = trace.stream().filter(s -> s.getName().equals("create-user")).findFirst().orElseThrow();
+            Assertions.assertEquals(admin.getSpanId(), createUser.getParentSpanId());
+        });
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.onecx.operator.db.postgresql;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Properties;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.github.onecx.operator.db.postgresql.database.DatabaseMetrics;
+import io.github.onecx.operator.db.postgresql.database.DatabaseService;
+import io.javaoperatorsdk.operator.Operator;
+import io.javaoperatorsdk.operator.processing.Controller;
+import io.javaoperatorsdk.operator.processing.event.Event;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class PostgreSQLReconcilerUnchangedTest {
+
+    @Inject
+    Operator operator;
+
+    @Inject
+    KubernetesClient client;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ReverifyScheduler reverifyScheduler;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    String jdbcUrl;
+
+    @Test
+    void unchangedSkipSqlTest() {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("unchanged_database");
+        spec.setUser("unchanged_user");
+        spec.setHost(defaultHost);
+        spec.setSchema("unchanged_schema");
+        spec.setPasswordKey("pk");
+        spec.setPasswordSecrets("unchanged-1");
+
+        operator.start();
+
+        Secret secret = new Secret();
+        secret.setMetadata(new ObjectMetaBuilder().withName(spec.getPasswordSecrets())
+                .withNamespace(client.getNamespace()).build());
+        secret.setData(Map.of(spec.getPasswordKey(), encode("unchanged_password")));
+        client.resource(secret).serverSideApply();
+
+        PostgreSQLDatabase database = new PostgreSQLDatabase();
+        database.setMetadata(new ObjectMetaBuilder().withName("unchanged-1").withNamespace(client.getNamespace()).build());
+        database.setSpec(spec);
+        client.resource(database).serverSideApply();
+
+        await().pollDelay(1, SECONDS).atMost(30, SECONDS).untilAsserted(() -> {
+            PostgreSQLDatabase result = client.resource(database).get();
+            Assertions.assertNotNull(result.getStatus());
+            Assertions.assertEquals(PostgreSQLReconciler.STATUS_CREATED, result.getStatus().getStatus());
+        });
+        String fingerprint = client.resource(database).get().getStatus().getFingerprint();
+
+        // second reconcile with unchanged spec and secret
+        long statements = statements();
+        double unchanged = unchanged();
+        trigger(ResourceID.fromResource(database));
+
+        await().atMost(10, SECONDS).until(() -> unchanged() > unchanged);
+        Assertions.assertEquals(statements, statements());
+
+        // new secret data bumps the secret resource version
+        secret.setData(Map.of(spec.getPasswordKey(), encode("changed_password")));
+        client.resource(secret).serverSideApply();
+
+        await().atMost(30, SECONDS).untilAsserted(() -> {
+            Assertions.assertTrue(statements() > statements);
+            Assertions.assertNotEquals(fingerprint, client.resource(database).get().getStatus().getFingerprint());
+        });
+    }
+
+    @Test
+    void reverifyDroppedSchemaTest() throws Exception {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("reverify_database");
+        spec.setUser("reverify_user");
+        spec.setHost(defaultHost);
+        spec.setSchema("reverify_schema");
+        spec.setPasswordKey("pk");
+        spec.setPasswordSecrets("reverify-1");
+
+        operator.start();
+
+        Secret secret = new Secret();
+        secret.setMetadata(new ObjectMetaBuilder().withName(spec.getPasswordSecrets())
+                .withNamespace(client.getNamespace()).build());
+        secret.setData(Map.of(spec.getPasswordKey(), encode("reverify_password")));
+        client.resource(secret).serverSideApply();
+
+        PostgreSQLDatabase database = new PostgreSQLDatabase();
+        database.setMetadata(new ObjectMetaBuilder().withName("reverify-1").withNamespace(client.getNamespace()).build());
+        database.setSpec(spec);
+        client.resource(database).serverSideApply();
+
+        await().pollDelay(1, SECONDS).atMost(30, SECONDS).untilAsserted(() -> {
+            PostgreSQLDatabase result = client.resource(database).get();
+            Assertions.assertNotNull(result.getStatus());
+            Assertions.assertEquals(PostgreSQLReconciler.STATUS_CREATED, result.getStatus().getStatus());
+        });
+
+        // out-of-band drop of the schema, the snapshot of the database objects still contains it
+        try (Connection connection = createConnection(spec, "reverify_password");
+                Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA reverify_schema");
+        }
+
+        ResourceID id = ResourceID.fromResource(database);
+        reverifyScheduler.drifted(id);
+        trigger(id);
+
+        await().atMost(30, SECONDS).untilAsserted(() -> {
+            try (Connection connection = createConnection(spec, "reverify_password");
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(
+                            "SELECT 1 FROM pg_catalog.pg_namespace WHERE nspname = 'reverify_schema'")) {
+                Assertions.assertTrue(rs.next());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void trigger(ResourceID id) {
+        operator.getRegisteredControllers().stream()
+                .filter(c -> c.getConfiguration().getResourceClass() == PostgreSQLDatabase.class)
+                .map(c -> (Controller<PostgreSQLDatabase>) c)
+                .findFirst().orElseThrow()
+                .getEventProcessor().handleEvent(new Event(id));
+    }
+
+    private double unchanged() {
+        return registry.find("onecx.operator.db.postgresql.reconcile").tag("outcome", DatabaseMetrics.OUTCOME_UNCHANGED)
+                .counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private long statements() {
+        return registry.find("onecx.operator.db.postgresql.sql").timers()
+                .stream().mapToLong(Timer::count).sum();
+    }
+
+    private Connection createConnection(DatabaseSpec spec, String password) throws Exception {
+        Properties properties = new Properties();
+        properties.put("user", spec.getUser());
+        properties.put("password", password);
+        Driver driver = DriverManager.getDriver(jdbcUrl);
+        return driver.connect(DatabaseService.createJdbcUrl(jdbcUrl, spec.getName()), properties);
+    }
+
+    private static String encode(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes());
+    }
+}
@@ -1,6 +1,5 @@
 package io.github.onecx.operator.db.postgresql;
 
-import static io.github.onecx.operator.db.postgresql.PostgreSQLReconciler.HOST;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.awaitility.Awaitility.await;
 
@@ -15,6 +14,7 @@ import jakarta.inject.Inject;
 import org.awaitility.Awaitility;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -42,6 +42,9 @@ class PostgreSQLSchemaNoGrantUserRoleAdminTest {
     @Inject
     KubernetesClient client;
 
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
     @BeforeAll
     public static void init() {
         Awaitility.setDefaultPollDelay(2, SECONDS);
@@ -62,7 +65,6 @@ class PostgreSQLSchemaNoGrantUserRoleAdminTest {
         DatabaseSpec spec = new DatabaseSpec();
         spec.setName(database);
         spec.setUser(user);
-        spec.setHost(HOST);
         spec.setSchema(schema);
         spec.setPasswordKey(passwordKey);
         spec.setExtensions(extensions);
@@ -75,6 +77,8 @@ class PostgreSQLSchemaNoGrantUserRoleAdminTest {
     @MethodSource("provideDatabaseSpecForTest")
     void databaseSpecTests(String name, DatabaseSpec spec, String testPassword, String checkSchema) {
 
+        spec.setHost(defaultHost);
+
         Base64.Encoder encoder = Base64.getEncoder();
 
         operator.start();
@@ -1,6 +1,5 @@
 package io.github.onecx.operator.db.postgresql;
 
-import static io.github.onecx.operator.db.postgresql.PostgreSQLReconciler.HOST;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.awaitility.Awaitility.await;
 
@@ -15,6 +14,7 @@ import jakarta.inject.Inject;
 import org.awaitility.Awaitility;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -41,6 +41,9 @@ class PostgreSQLSchemaTest {
     @Inject
     KubernetesClient client;
 
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
     @BeforeAll
     public static void init() {
         Awaitility.setDefaultPollDelay(2, SECONDS);
@@ -75,7 +78,6 @@ class PostgreSQLSchemaTest {
         DatabaseSpec spec = new DatabaseSpec();
         spec.setName(database);
         spec.setUser(user);
-        spec.setHost(HOST);
         spec.setSchema(schema);
         spec.setPasswordKey(passwordKey);
         spec.setExtensions(extensions);
@@ -88,6 +90,8 @@ class PostgreSQLSchemaTest {
     @MethodSource("provideDatabaseSpecForTest")
     void databaseSpecTests(String name, DatabaseSpec spec, String testPassword, String checkSchema) {
 
+        spec.setHost(defaultHost);
+
         Base64.Encoder encoder = Base64.getEncoder();
 
         operator.start();
@@ -147,7 +151,7 @@ class PostgreSQLSchemaTest {
         DatabaseSpec spec = new DatabaseSpec();
         spec.setName(name);
         spec.setUser("null_data_1");
-        spec.setHost(HOST);
+        spec.setHost(defaultHost);
         spec.setSchema(checkSchema);
         spec.setPasswordKey("pk");
         spec.setPasswordSecrets("null-data-1");
@@ -192,7 +196,7 @@ class PostgreSQLSchemaTest {
         DatabaseSpec spec = new DatabaseSpec();
         spec.setName(testDatabase);
         spec.setUser(testUser);
-        spec.setHost(HOST);
+        spec.setHost(defaultHost);
         spec.setSchema(testSchema);
         spec.setPasswordKey("pk");
         spec.setUserSearchPath(userSearchPath);
@@ -242,7 +246,7 @@ class PostgreSQLSchemaTest {
         DatabaseSpec spec = new DatabaseSpec();
         spec.setName(testDatabase);
         spec.setUser(testUser);
-        spec.setHost(HOST);
+        spec.setHost(defaultHost);
         spec.setSchema(testSchema);
         spec.setPasswordKey("pk");
         spec.setPasswordSecrets("change-db-3");
@@ -314,7 +318,7 @@ class PostgreSQLSchemaTest {
         DatabaseSpec spec = new DatabaseSpec();
         spec.setName(testDatabase);
         spec.setUser(testUser);
-        spec.setHost(HOST);
+        spec.setHost(defaultHost);
         spec.setSchema(testSchema);
         spec.setPasswordKey("pk");
         spec.setPasswordSecrets("null-data-db-3");
@@ -366,7 +370,7 @@ class PostgreSQLSchemaTest {
         DatabaseSpec spec = new DatabaseSpec();
         spec.setName(name);
         spec.setUser("null_data_2");
-        spec.setHost(HOST);
+        spec.setHost(defaultHost);
         spec.setSchema(checkSchema);
         spec.setPasswordKey("pk");
         spec.setPasswordSecrets("null-data-2");
@@ -406,7 +410,7 @@ class PostgreSQLSchemaTest {
         DatabaseSpec spec = new DatabaseSpec();
         spec.setName(name);
         spec.setUser("null_data_3");
-        spec.setHost(HOST);
+        spec.setHost(defaultHost);
         spec.setSchema(checkSchema);
         spec.setPasswordSecrets("null-data-3");
         Base64.Encoder encoder = Base64.getEncoder();
@@ -444,7 +448,7 @@ class PostgreSQLSchemaTest {
         DatabaseSpec spec = new DatabaseSpec();
         spec.setName(name);
         spec.setUser("null_data_4");
-        spec.setHost(HOST);
+        spec.setHost(defaultHost);
         spec.setSchema(checkSchema);
         spec.setPasswordKey("pk");
         spec.setPasswordSecrets("null-data-4");
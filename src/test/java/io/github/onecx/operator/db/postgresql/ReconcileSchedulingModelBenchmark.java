@@ -0,0 +1,130 @@
+package io.github.onecx.operator.db.postgresql;
+
+import java.util.concurrent.*;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Model of the reconcile scheduling with one slow host: the time until the reconcile threads drained the
+ * work of the healthy hosts. The admin pool and the reconcile slots of a host are semaphores and the
+ * statements are {@code Thread.sleep} calls, neither the {@code HostRegistry} nor PostgreSQL are used. The
+ * result shows the effect of the thread starvation only, it is not a convergence measurement against
+ * PostgreSQL. The reconciles against a real slow server are measured by the load test
+ * ({@code PostgreSQLLoadTest}).
+ * <p>
+ * {@code blocking} holds the reconcile thread while it waits for a pool connection, {@code bounded}
+ * reschedules the reconcile if all pool connections of the host are in use
+ * ({@code onecx.operator.db.postgresql.pool-bounded-reconciles}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Donecx.operator.db.postgresql.host=benchmark")
+public class ReconcileSchedulingModelBenchmark {
+
+    /**
+     * Default reconcile threads of the operator SDK.
+     */
+    private static final int THREADS = 200;
+
+    private static final int HOSTS = 5;
+
+    private static final int POOL_SIZE = 20;
+
+    @Param({ "5000" })
+    int databases;
+
+    @Param({ "blocking", "bounded" })
+    String mode;
+
+    @Param({ "1" })
+    long latency;
+
+    @Param({ "200" })
+    long slowLatency;
+
+    @Param({ "10" })
+    long busyDelay;
+
+    ExecutorService reconcileExecutor;
+
+    ScheduledExecutorService rescheduleExecutor;
+
+    Semaphore[] pools;
+
+    Semaphore[] reconciles;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        reconcileExecutor = Executors.newFixedThreadPool(THREADS);
+        rescheduleExecutor = Executors.newSingleThreadScheduledExecutor();
+        pools = new Semaphore[HOSTS];
+        reconciles = new Semaphore[HOSTS];
+        for (int i = 0; i < HOSTS; i++) {
+            pools[i] = new Semaphore(POOL_SIZE, true);
+            reconciles[i] = new Semaphore(POOL_SIZE, true);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        rescheduleExecutor.shutdownNow();
+        reconcileExecutor.shutdownNow();
+    }
+
+    /**
+     * Host {@code 0} is slow, returns when all simulated reconciles of the healthy hosts finished.
+     */
+    @Benchmark
+    public void drainHealthyHosts() throws InterruptedException {
+        CountDownLatch healthy = new CountDownLatch(databases - (databases + HOSTS - 1) / HOSTS);
+        for (int i = 0; i < databases; i++) {
+            int host = i % HOSTS;
+            submit(host, host == 0 ? null : healthy);
+        }
+        healthy.await();
+    }
+
+    private void submit(int host, CountDownLatch healthy) {
+        try {
+            reconcileExecutor.execute(() -> reconcile(host, healthy));
+        } catch (RejectedExecutionException ex) {
+            // benchmark invocation finished
+        }
+    }
+
+    private void reschedule(int host, CountDownLatch healthy) {
+        try {
+            rescheduleExecutor.schedule(() -> submit(host, healthy), busyDelay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            // benchmark invocation finished
+        }
+    }
+
+    private void reconcile(int host, CountDownLatch healthy) {
+        boolean bounded = "bounded".equals(mode);
+        if (bounded && !reconciles[host].tryAcquire()) {
+            reschedule(host, healthy);
+            return;
+        }
+        try {
+            pools[host].acquire();
+            try {
+                Thread.sleep(healthy == null ? slowLatency : latency);
+            } finally {
+                pools[host].release();
+            }
+            if (healthy != null) {
+                healthy.countDown();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (bounded) {
+                reconciles[host].release();
+            }
+        }
+    }
+}
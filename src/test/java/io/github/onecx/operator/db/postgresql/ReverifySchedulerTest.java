@@ -0,0 +1,78 @@
+package io.github.onecx.operator.db.postgresql;
+
+import java.time.Duration;
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@TestProfile(ReverifySchedulerTest.CustomProfile.class)
+class ReverifySchedulerTest {
+
+    @Inject
+    ReverifyScheduler scheduler;
+
+    @Test
+    void trickleRateTest() {
+        ResourceID first = new ResourceID("reverify-1", "reverify");
+        ResourceID second = new ResourceID("reverify-2", "reverify");
+        ResourceID third = new ResourceID("reverify-3", "reverify");
+
+        Assertions.assertTrue(scheduler.isDue(first));
+        Assertions.assertEquals(Duration.ZERO, scheduler.acquire(first));
+
+        // slots are one second apart
+        Duration secondDelay = scheduler.acquire(second);
+        Duration thirdDelay = scheduler.acquire(third);
+        Assertions.assertTrue(secondDelay.compareTo(Duration.ofMillis(500)) > 0, "Delay: " + secondDelay);
+        Assertions.assertTrue(thirdDelay.compareTo(secondDelay.plusMillis(500)) > 0, "Delay: " + thirdDelay);
+
+        // reserved slot is kept
+        Assertions.assertTrue(scheduler.acquire(second).compareTo(secondDelay) <= 0);
+        Assertions.assertEquals(3, scheduler.pending());
+
+        scheduler.verified(first);
+        Assertions.assertFalse(scheduler.isDue(first));
+        Assertions.assertTrue(scheduler.isDue(second));
+        Assertions.assertEquals(2, scheduler.pending());
+
+        scheduler.verified(second);
+        scheduler.verified(third);
+        Assertions.assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    void forgetTest() {
+        ResourceID deleted = new ResourceID("reverify-deleted", "reverify");
+        ResourceID pending = new ResourceID("reverify-pending", "reverify");
+        int size = scheduler.pending();
+
+        scheduler.verified(deleted);
+        Assertions.assertFalse(scheduler.isDue(deleted));
+        scheduler.acquire(pending);
+        scheduler.drifted(pending);
+        Assertions.assertEquals(size + 1, scheduler.pending());
+
+        // the state of the deleted resources is removed
+        scheduler.forget(deleted);
+        scheduler.forget(pending);
+        Assertions.assertTrue(scheduler.isDue(deleted));
+        Assertions.assertEquals(size, scheduler.pending());
+    }
+
+    public static class CustomProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.operator.db.postgresql.reverify.rate", "1");
+        }
+    }
+}
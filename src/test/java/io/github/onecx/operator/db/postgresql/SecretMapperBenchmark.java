@@ -0,0 +1,84 @@
+package io.github.onecx.operator.db.postgresql;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.informers.impl.cache.CacheImpl;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+
+/**
+ * Cost of the secret to database mapper, full cache scan compared to the secret index lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Donecx.operator.db.postgresql.host=benchmark")
+public class SecretMapperBenchmark {
+
+    private static final int NAMESPACES = 100;
+
+    @Param({ "1000", "10000", "100000" })
+    int databases;
+
+    CacheImpl<PostgreSQLDatabase> cache;
+
+    Secret[] secrets;
+
+    int index;
+
+    @Setup
+    public void setup() {
+        cache = new CacheImpl<>(PostgreSQLReconciler.SECRET_INDEX, PostgreSQLReconciler::secretIndexKeys,
+                CacheImpl::metaNamespaceKeyFunc);
+        secrets = new Secret[databases];
+        for (int i = 0; i < databases; i++) {
+            String namespace = "namespace-" + (i % NAMESPACES);
+            DatabaseSpec spec = new DatabaseSpec();
+            spec.setName("database_" + i);
+            spec.setUser("user_" + i);
+            spec.setPasswordKey("pk");
+            spec.setPasswordSecrets("secret-" + i);
+            PostgreSQLDatabase database = new PostgreSQLDatabase();
+            database.setMetadata(new ObjectMetaBuilder().withName("database-" + i).withNamespace(namespace).build());
+            database.setSpec(spec);
+            cache.put(database);
+
+            Secret secret = new Secret();
+            secret.setMetadata(new ObjectMetaBuilder().withName("secret-" + i).withNamespace(namespace).build());
+            secrets[i] = secret;
+        }
+    }
+
+    private Secret nextSecret() {
+        index = (index + 1) % secrets.length;
+        return secrets[index];
+    }
+
+    @Benchmark
+    public Set<ResourceID> scan() {
+        Secret secret = nextSecret();
+        return cache.list().stream()
+                .filter(db -> db.getSpec() != null
+                        && secret.getMetadata().getName().equals(db.getSpec().getPasswordSecrets())
+                        && secret.getMetadata().getNamespace().equals(db.getMetadata().getNamespace()))
+                .map(ResourceID::fromResource)
+                .collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public Set<ResourceID> index() {
+        Secret secret = nextSecret();
+        return cache.byIndex(PostgreSQLReconciler.SECRET_INDEX,
+                PostgreSQLReconciler.secretIndexKey(secret.getMetadata().getName(), secret.getMetadata().getNamespace()))
+                .stream()
+                .map(ResourceID::fromResource)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.onecx.operator.db.postgresql;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseSpec;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class ShardRingTest {
+
+    private static final List<String> KEYS = IntStream.range(0, 3000).mapToObj(i -> "ns-" + (i % 7) + "/db-" + i)
+            .toList();
+
+    @Test
+    void emptyRingTest() {
+        Assertions.assertNull(new ShardRing(Set.of()).owner("ns/db"));
+        Assertions.assertEquals("a", new ShardRing(Set.of("a")).owner("ns/db"));
+    }
+
+    @Test
+    void distributionTest() {
+        ShardRing ring = new ShardRing(Set.of("a", "b", "c"));
+        Map<String, Integer> counts = new HashMap<>();
+        KEYS.forEach(key -> counts.merge(ring.owner(key), 1, Integer::sum));
+        Assertions.assertEquals(Set.of("a", "b", "c"), counts.keySet());
+        counts.values().forEach(count -> Assertions.assertTrue(count > KEYS.size() / 6, "unbalanced " + counts));
+    }
+
+    @Test
+    void rebalanceTest() {
+        ShardRing before = new ShardRing(Set.of("a", "b", "c"));
+        ShardRing after = new ShardRing(Set.of("a", "b", "c", "d"));
+        for (String key : KEYS) {
+            String owner = after.owner(key);
+            // keys move only to the joined member
+            if (!owner.equals(before.owner(key))) {
+                Assertions.assertEquals("d", owner);
+            }
+        }
+        ShardRing left = new ShardRing(Set.of("a", "c"));
+        for (String key : KEYS) {
+            // keys move only from the leaving member
+            if (!"b".equals(before.owner(key))) {
+                Assertions.assertEquals(before.owner(key), left.owner(key));
+            }
+        }
+    }
+
+    @Test
+    void membersTest() {
+        ZonedDateTime now = ZonedDateTime.now();
+        Lease valid = new Lease();
+        valid.setSpec(new LeaseSpec(now, "a", 30, 0, now.minusSeconds(10)));
+        Lease expired = new Lease();
+        expired.setSpec(new LeaseSpec(now, "b", 30, 0, now.minusSeconds(31)));
+        Lease empty = new Lease();
+        Assertions.assertEquals(Set.of("a"), ShardCoordinator.members(List.of(valid, expired, empty), now));
+    }
+
+    @Test
+    void expiredTest() {
+        ZonedDateTime now = ZonedDateTime.now();
+        Duration leaseDuration = Duration.ofSeconds(30);
+        Assertions.assertTrue(ShardCoordinator.expired(null, now, leaseDuration));
+        Assertions.assertFalse(ShardCoordinator.expired(now.minusSeconds(29), now, leaseDuration));
+        Assertions.assertTrue(ShardCoordinator.expired(now.minusSeconds(30), now, leaseDuration));
+    }
+}
@@ -0,0 +1,211 @@
+package io.github.onecx.operator.db.postgresql;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Properties;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.github.onecx.operator.db.postgresql.database.CatalogSnapshot;
+import io.github.onecx.operator.db.postgresql.database.DatabaseService;
+import io.github.onecx.operator.db.postgresql.database.DeletionPolicy;
+import io.github.onecx.operator.db.postgresql.database.HostRegistry;
+import io.javaoperatorsdk.operator.Operator;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class TeardownQueueTest {
+
+    @Inject
+    Operator operator;
+
+    @Inject
+    KubernetesClient client;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @Inject
+    TeardownQueue teardownQueue;
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    String jdbcUrl;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String databaseAdmin;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    String databaseAdminPassword;
+
+    @Test
+    void policyTest() {
+        DatabaseSpec spec = new DatabaseSpec();
+        Assertions.assertEquals(DeletionPolicy.RETAIN, teardownQueue.policy(spec));
+        spec.setDeletionPolicy("drop-database");
+        Assertions.assertEquals(DeletionPolicy.DROP_DATABASE, teardownQueue.policy(spec));
+        spec.setDeletionPolicy("drop");
+        Assertions.assertEquals(DeletionPolicy.DROP, teardownQueue.policy(spec));
+        spec.setDeletionPolicy("delete");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> teardownQueue.policy(spec));
+    }
+
+    @Test
+    void sharedWithoutSpecTest() {
+        PostgreSQLDatabase database = new PostgreSQLDatabase();
+        database.setMetadata(new ObjectMetaBuilder().withName("teardown-no-spec").withNamespace("default").build());
+        // nothing is dropped without spec, host or value
+        Assertions.assertTrue(teardownQueue.shared(database, DatabaseSpec::getName));
+        database.setSpec(new DatabaseSpec());
+        Assertions.assertTrue(teardownQueue.shared(database, DatabaseSpec::getName));
+        database.getSpec().setHost(defaultHost);
+        Assertions.assertTrue(teardownQueue.shared(database, DatabaseSpec::getUser));
+    }
+
+    @Test
+    void dropTest() throws Exception {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("teardown_database");
+        spec.setUser("teardown_user");
+        spec.setHost(defaultHost);
+        spec.setSchema("teardown_schema");
+        spec.setPasswordKey("pk");
+        spec.setPasswordSecrets("teardown-1");
+        spec.setDeletionPolicy("drop");
+
+        operator.start();
+
+        Secret secret = new Secret();
+        secret.setMetadata(new ObjectMetaBuilder().withName(spec.getPasswordSecrets())
+                .withNamespace(client.getNamespace()).build());
+        secret.setData(Map.of(spec.getPasswordKey(), Base64.getEncoder().encodeToString("teardown_password".getBytes())));
+        client.resource(secret).serverSideApply();
+
+        PostgreSQLDatabase database = new PostgreSQLDatabase();
+        database.setMetadata(new ObjectMetaBuilder().withName("teardown-1").withNamespace(client.getNamespace()).build());
+        database.setSpec(spec);
+        client.resource(database).serverSideApply();
+
+        await().pollDelay(1, SECONDS).atMost(30, SECONDS).untilAsserted(() -> {
+            PostgreSQLDatabase result = client.resource(database).get();
+            Assertions.assertNotNull(result.getStatus());
+            Assertions.assertEquals(PostgreSQLReconciler.STATUS_CREATED, result.getStatus().getStatus());
+            Assertions.assertFalse(result.getMetadata().getFinalizers().isEmpty());
+        });
+
+        // open session of the user blocks a plain drop of the database
+        try (Connection session = createConnection(spec)) {
+            client.resource(database).delete();
+
+            await().atMost(30, SECONDS).untilAsserted(() -> Assertions.assertNull(client.resource(database).get()));
+            Assertions.assertTrue(session.isClosed() || !session.isValid(1));
+        }
+
+        CatalogSnapshot catalog = hostRegistry.host(defaultHost).getCatalog();
+        Assertions.assertNull(catalog.databaseOwner(spec.getName()));
+        Assertions.assertFalse(catalog.userExists(spec.getUser()));
+        Assertions.assertEquals(0, teardownQueue.pending());
+    }
+
+    @Test
+    void dropParkedTest() throws Exception {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("teardown_parked_database");
+        spec.setUser("teardown_parked_user");
+        spec.setHost(defaultHost);
+        spec.setPasswordKey("pk");
+        spec.setPasswordSecrets("teardown-2");
+        spec.setDeletionPolicy("drop");
+
+        operator.start();
+
+        Secret secret = new Secret();
+        secret.setMetadata(new ObjectMetaBuilder().withName(spec.getPasswordSecrets())
+                .withNamespace(client.getNamespace()).build());
+        secret.setData(Map.of(spec.getPasswordKey(), Base64.getEncoder().encodeToString("teardown_password".getBytes())));
+        client.resource(secret).serverSideApply();
+
+        PostgreSQLDatabase database = new PostgreSQLDatabase();
+        database.setMetadata(new ObjectMetaBuilder().withName("teardown-2").withNamespace(client.getNamespace()).build());
+        database.setSpec(spec);
+        client.resource(database).serverSideApply();
+
+        await().pollDelay(1, SECONDS).atMost(30, SECONDS).untilAsserted(() -> {
+            PostgreSQLDatabase result = client.resource(database).get();
+            Assertions.assertNotNull(result.getStatus());
+            Assertions.assertEquals(PostgreSQLReconciler.STATUS_CREATED, result.getStatus().getStatus());
+        });
+
+        // a table of the user in another database blocks the drop of the user
+        try (Connection admin = createAdminConnection(jdbcUrl);
+                Statement statement = admin.createStatement()) {
+            statement.execute("CREATE DATABASE teardown_parked_other");
+        }
+        try (Connection admin = createAdminConnection(DatabaseService.createJdbcUrl(jdbcUrl, "teardown_parked_other"));
+                Statement statement = admin.createStatement()) {
+            statement.execute("CREATE TABLE parked (id int)");
+            statement.execute("ALTER TABLE parked OWNER TO " + spec.getUser());
+        }
+
+        client.resource(database).delete();
+
+        await().atMost(30, SECONDS).untilAsserted(() -> {
+            PostgreSQLDatabase result = client.resource(database).get();
+            Assertions.assertNotNull(result);
+            Assertions.assertNotNull(result.getStatus());
+            Assertions.assertTrue(result.getStatus().getStatus().startsWith("ERROR: teardown failed"),
+                    result.getStatus().getStatus());
+        });
+        Assertions.assertEquals(0, teardownQueue.pending());
+
+        // retain releases the parked resource
+        client.resources(PostgreSQLDatabase.class).inNamespace(client.getNamespace()).withName("teardown-2")
+                .edit(db -> {
+                    db.getSpec().setDeletionPolicy("retain");
+                    return db;
+                });
+        await().atMost(30, SECONDS).untilAsserted(() -> Assertions.assertNull(client.resource(database).get()));
+
+        CatalogSnapshot catalog = hostRegistry.host(defaultHost).getCatalog();
+        Assertions.assertNull(catalog.databaseOwner(spec.getName()));
+        Assertions.assertTrue(catalog.userExists(spec.getUser()));
+
+        try (Connection admin = createAdminConnection(jdbcUrl);
+                Statement statement = admin.createStatement()) {
+            statement.execute("DROP DATABASE teardown_parked_other");
+            statement.execute("DROP ROLE " + spec.getUser());
+        }
+    }
+
+    private Connection createAdminConnection(String url) throws Exception {
+        Properties properties = new Properties();
+        properties.put("user", databaseAdmin);
+        properties.put("password", databaseAdminPassword);
+        Driver driver = DriverManager.getDriver(url);
+        return driver.connect(url, properties);
+    }
+
+    private Connection createConnection(DatabaseSpec spec) throws Exception {
+        Properties properties = new Properties();
+        properties.put("user", spec.getUser());
+        properties.put("password", "teardown_password");
+        Driver driver = DriverManager.getDriver(jdbcUrl);
+        return driver.connect(DatabaseService.createJdbcUrl(jdbcUrl, spec.getName()), properties);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class BackoffTest {
+
+    @Test
+    void delayTest() {
+        Backoff backoff = new Backoff(Duration.ofSeconds(1), Duration.ofSeconds(10), 2);
+        Assertions.assertEquals(Duration.ofMillis(500), backoff.delay(1, 0));
+        Assertions.assertEquals(Duration.ofSeconds(1), backoff.delay(1, 1));
+        Assertions.assertEquals(Duration.ofSeconds(3), backoff.delay(3, 0.5));
+        // capped by the maximum delay
+        Assertions.assertEquals(Duration.ofSeconds(10), backoff.delay(10, 1));
+        Assertions.assertEquals(Duration.ofSeconds(5), backoff.delay(10, 0));
+    }
+
+    @Test
+    void classifyTest() {
+        Assertions.assertEquals(ErrorClass.TRANSIENT, ErrorClass.classify("40P01"));
+        Assertions.assertEquals(ErrorClass.TRANSIENT, ErrorClass.classify("53300"));
+        Assertions.assertEquals(ErrorClass.TRANSIENT, ErrorClass.classify("55006"));
+        Assertions.assertEquals(ErrorClass.PERMANENT, ErrorClass.classify("28P01"));
+        Assertions.assertEquals(ErrorClass.PERMANENT, ErrorClass.classify("42501"));
+        Assertions.assertEquals(ErrorClass.PERMANENT, ErrorClass.classify("42601"));
+        Assertions.assertEquals(ErrorClass.PERMANENT, ErrorClass.classify("22023"));
+        // concurrent create
+        Assertions.assertEquals(ErrorClass.TRANSIENT, ErrorClass.classify("42710"));
+        Assertions.assertEquals(ErrorClass.TRANSIENT, ErrorClass.classify("42P04"));
+        Assertions.assertEquals(ErrorClass.TRANSIENT, ErrorClass.classify("42P06"));
+        // missing template database or role does not change on retry
+        Assertions.assertEquals(ErrorClass.PERMANENT, ErrorClass.classify("42704"));
+        Assertions.assertEquals(ErrorClass.PERMANENT, ErrorClass.classify("3D000"));
+        Assertions.assertEquals(ErrorClass.PERMANENT, ErrorClass.classify("2BP01"));
+        Assertions.assertEquals(ErrorClass.UNKNOWN, ErrorClass.classify("XX000"));
+        Assertions.assertEquals(ErrorClass.UNKNOWN, ErrorClass.classify((String) null));
+        Assertions.assertEquals(ErrorClass.PERMANENT,
+                ErrorClass.classify(new ExtensionNotAvailableException("Extension 'x' is not available")));
+    }
+}
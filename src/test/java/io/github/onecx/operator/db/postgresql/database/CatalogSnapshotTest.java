@@ -0,0 +1,81 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class CatalogSnapshotTest {
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String databaseAdmin;
+
+    @Test
+    void loadCatalogTest() throws Exception {
+        CatalogSnapshot catalog = hostRegistry.host(defaultHost).getCatalog();
+        catalog.invalidate();
+        Assertions.assertTrue(catalog.userExists(databaseAdmin));
+        Assertions.assertFalse(catalog.userExists("catalog_unknown_user"));
+        Assertions.assertNull(catalog.databaseOwner("catalog_unknown_database"));
+
+        catalog.userCreated("catalog_unknown_user");
+        Assertions.assertTrue(catalog.userExists("catalog_unknown_user"));
+
+        catalog.refresh();
+        Assertions.assertFalse(catalog.userExists("catalog_unknown_user"));
+    }
+
+    @Test
+    void driftObjectsTest() throws Exception {
+        CatalogSnapshot catalog = hostRegistry.host(defaultHost).getCatalog();
+        catalog.invalidate();
+
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("postgres");
+        spec.setUser(catalog.databaseOwner("postgres"));
+        spec.setSchema("catalog_schema");
+        spec.setExtensions(List.of("catalog_extension"));
+        spec.setExtensionVersions(Map.of("catalog_extension", "1.1"));
+
+        // objects of the database are not loaded
+        Assertions.assertEquals(Optional.empty(), catalog.drift(spec));
+
+        catalog.objectsLoaded("postgres", Set.of("public"), Map.of("catalog_extension", "1.0"));
+        Assertions.assertEquals(Optional.of("schema"), catalog.drift(spec));
+
+        catalog.schemaCreated("postgres", "catalog_schema");
+        Assertions.assertEquals(Optional.of("extension"), catalog.drift(spec));
+
+        catalog.extensionUpdated("postgres", "catalog_extension", "1.1");
+        Assertions.assertEquals(Optional.empty(), catalog.drift(spec));
+
+        // the refresh keeps the objects of the existing databases
+        Assertions.assertTrue(catalog.refresh());
+        Assertions.assertEquals(Set.of("public", "catalog_schema"), catalog.schemas("postgres"));
+        catalog.invalidate("postgres");
+        Assertions.assertNull(catalog.schemas("postgres"));
+    }
+
+    @Test
+    void searchPathEqualsTest() {
+        Assertions.assertTrue(CatalogSnapshot.searchPathEquals("test_custom2, public", "test_custom2,public"));
+        Assertions.assertTrue(CatalogSnapshot.searchPathEquals(null, ""));
+        Assertions.assertFalse(CatalogSnapshot.searchPathEquals("test_custom2", "test_custom2,public"));
+    }
+}
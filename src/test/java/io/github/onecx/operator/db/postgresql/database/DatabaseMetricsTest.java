@@ -0,0 +1,54 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.SQLException;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class DatabaseMetricsTest {
+
+    @Inject
+    DatabaseMetrics metrics;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @Test
+    void statementAndPhaseTest() {
+        metrics.statement(defaultHost, SqlStatement.CREATE_USER, 1000, true);
+        Timer timer = registry.find("onecx.operator.db.postgresql.sql")
+                .tags("host", defaultHost, "statement", "create-user", "outcome", "success").timer();
+        Assertions.assertNotNull(timer);
+        Assertions.assertTrue(timer.count() > 0);
+
+        metrics.phase(metrics.start(), defaultHost, DatabaseMetrics.PHASE_ADMIN, false);
+        Assertions.assertNotNull(registry.find("onecx.operator.db.postgresql.reconcile.phase")
+                .tags("host", defaultHost, "phase", "admin", "outcome", "error").timer());
+
+        Assertions.assertNotNull(registry.find("onecx.operator.db.postgresql.admin.pool.max")
+                .tags("host", defaultHost).gauge());
+        Assertions.assertNotNull(registry.find("onecx.operator.db.postgresql.admin.pool.acquire")
+                .tags("host", defaultHost).functionTimer());
+    }
+
+    @Test
+    void errorTest() {
+        metrics.error(defaultHost, new Exception(new SQLException("duplicate", "42710")));
+        Assertions.assertEquals(1, registry.find("onecx.operator.db.postgresql.reconcile.errors")
+                .tags("host", defaultHost, "error", "42710").counter().count());
+
+        Assertions.assertEquals("IllegalStateException", DatabaseMetrics.errorTag(new IllegalStateException()));
+        Assertions.assertEquals("SQLException", DatabaseMetrics.errorTag(new Exception(new SQLException("no state"))));
+    }
+}
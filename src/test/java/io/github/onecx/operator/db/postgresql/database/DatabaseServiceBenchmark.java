@@ -0,0 +1,26 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of the user datasource JDBC URL creation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseServiceBenchmark {
+
+    @Param({ "jdbc:postgresql://localhost:5432/postgres",
+            "jdbc:postgresql://postgresql.database.svc.cluster.local:5432/postgres?sslmode=require&connectTimeout=10" })
+    String jdbcUrl;
+
+    @Benchmark
+    public String createJdbcUrl() {
+        return DatabaseService.createJdbcUrl(jdbcUrl, "benchmark_database");
+    }
+}
@@ -1,17 +1,91 @@
 package io.github.onecx.operator.db.postgresql.database;
 
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
 import io.quarkus.test.junit.QuarkusTest;
 
 @QuarkusTest
 class DatabaseServiceTest {
 
+    @Inject
+    HostRegistry hostRegistry;
+
+    @Inject
+    Instance<DatabaseEngine> databaseEngine;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @Test
+    void checkExtensionsTest() throws Exception {
+        CatalogSnapshot catalog = hostRegistry.host(defaultHost).getCatalog();
+        String version = catalog.availableExtensions().get("plpgsql").iterator().next();
+
+        DatabaseSpec spec = new DatabaseSpec();
+        DatabaseService.checkExtensions(catalog, spec);
+
+        spec.setExtensions(List.of("plpgsql"));
+        spec.setExtensionVersions(Map.of("plpgsql", version));
+        DatabaseService.checkExtensions(catalog, spec);
+
+        spec.setExtensions(List.of("plpgsql", "unknown_extension"));
+        spec.setExtensionVersions(null);
+        var ex = Assertions.assertThrows(ExtensionNotAvailableException.class,
+                () -> DatabaseService.checkExtensions(catalog, spec));
+        Assertions.assertEquals("Extension 'unknown_extension' is not available", ex.getMessage());
+
+        spec.setExtensions(List.of("plpgsql"));
+        spec.setExtensionVersions(Map.of("plpgsql", "0.0.0"));
+        Assertions.assertThrows(ExtensionNotAvailableException.class,
+                () -> DatabaseService.checkExtensions(catalog, spec));
+
+        spec.setExtensions(null);
+        spec.setExtensionVersions(Map.of("plpgsql", version));
+        Assertions.assertThrows(ExtensionNotAvailableException.class,
+                () -> DatabaseService.checkExtensions(catalog, spec));
+    }
+
+    @Test
+    void createdConcurrentlyTest() throws Exception {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("concurrent_database");
+        spec.setUser("concurrent_user");
+        spec.setHost(defaultHost);
+
+        DatabaseHost host = hostRegistry.host(defaultHost);
+        CatalogSnapshot catalog = host.getCatalog();
+        catalog.invalidate();
+        Assertions.assertFalse(catalog.userExists(spec.getUser()));
+
+        // another replica creates the user and the database after the snapshot was loaded
+        try (Connection connection = host.getDataSource().getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE USER concurrent_user WITH PASSWORD 'other_password'");
+            statement.execute("CREATE DATABASE concurrent_database");
+        }
+        Assertions.assertNull(catalog.databaseOwner(spec.getName()));
+
+        databaseEngine.get().update("concurrent-1", host, spec, "concurrent_password".getBytes());
+
+        catalog.refresh();
+        Assertions.assertEquals("concurrent_user", catalog.databaseOwner("concurrent_database"));
+    }
+
     @ParameterizedTest
     @MethodSource("createJdbcUrlParameters")
     void createJdbcUrlTest(String url, String database, String result) {
@@ -0,0 +1,29 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class DdlBulkheadTest {
+
+    @Test
+    void acquireTimeoutTest() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DdlBulkhead bulkhead = new DdlBulkhead("bulkhead", 1, Duration.ofMillis(100), registry);
+
+        try (DdlBulkhead.Permit permit = bulkhead.acquire("1")) {
+            Assertions.assertThrows(SQLTimeoutException.class, () -> bulkhead.acquire("2"));
+        }
+        bulkhead.acquire("3").close();
+
+        Assertions.assertEquals(3, registry.get("onecx.operator.db.postgresql.ddl.wait").timer().count());
+        Assertions.assertEquals(1.0, registry.get("onecx.operator.db.postgresql.ddl.available").gauge().value());
+        Assertions.assertEquals(0, bulkhead.getQueueLength());
+    }
+}
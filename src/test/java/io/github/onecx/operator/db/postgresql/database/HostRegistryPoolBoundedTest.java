@@ -0,0 +1,56 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@TestProfile(HostRegistryPoolBoundedTest.CustomProfile.class)
+class HostRegistryPoolBoundedTest {
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @Test
+    void poolBoundedReconcilesTest() throws Exception {
+        DatabaseHost host = hostRegistry.host(defaultHost);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(host.tryAcquireReconcile());
+        }
+        Assertions.assertFalse(host.tryAcquireReconcile());
+        for (int i = 0; i < 3; i++) {
+            host.releaseReconcile();
+        }
+
+        // explicit limit wins over the pool size
+        DatabaseHost second = hostRegistry.host("second");
+        Assertions.assertTrue(second.tryAcquireReconcile());
+        Assertions.assertFalse(second.tryAcquireReconcile());
+        second.releaseReconcile();
+    }
+
+    public static class CustomProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "onecx.operator.db.postgresql.pool-bounded-reconciles", "true",
+                    "quarkus.datasource.jdbc.max-size", "3",
+                    "onecx.operator.db.postgresql.hosts.second.jdbc-url", "jdbc:postgresql://localhost:5432/second",
+                    "onecx.operator.db.postgresql.hosts.second.username", "second_admin",
+                    "onecx.operator.db.postgresql.hosts.second.password", "second_password",
+                    "onecx.operator.db.postgresql.hosts.second.max-concurrent-reconciles", "1");
+        }
+    }
+}
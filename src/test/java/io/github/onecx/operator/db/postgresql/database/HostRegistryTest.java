@@ -0,0 +1,73 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.agroal.api.configuration.AgroalConnectionPoolConfiguration;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@TestProfile(HostRegistryTest.CustomProfile.class)
+class HostRegistryTest {
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String databaseAdmin;
+
+    @Test
+    void registeredHostsTest() throws Exception {
+        Assertions.assertTrue(hostRegistry.contains(defaultHost));
+        Assertions.assertTrue(hostRegistry.contains("second"));
+        Assertions.assertFalse(hostRegistry.contains("unknown"));
+        Assertions.assertFalse(hostRegistry.contains(null));
+        Assertions.assertEquals(2, hostRegistry.hosts().size());
+
+        DatabaseHost second = hostRegistry.host("second");
+        Assertions.assertEquals("second_admin", second.getAdmin());
+        Assertions.assertTrue(second.tryAcquireReconcile());
+        Assertions.assertFalse(second.tryAcquireReconcile());
+        second.releaseReconcile();
+
+        // one concurrent reconcile and the headroom, one warm-up connection
+        AgroalConnectionPoolConfiguration pool = second.getDataSource().getConfiguration().connectionPoolConfiguration();
+        Assertions.assertEquals(3, pool.maxSize());
+        Assertions.assertEquals(1, pool.minSize());
+
+        Assertions.assertEquals(databaseAdmin, hostRegistry.host(defaultHost).getAdmin());
+        Assertions.assertThrows(HostRegistry.UnknownHostException.class, () -> hostRegistry.host("unknown"));
+    }
+
+    @Test
+    void adminPoolSizeTest() {
+        Assertions.assertEquals(12, HostRegistry.adminPoolSize(10, 0, 2, 20));
+        Assertions.assertEquals(6, HostRegistry.adminPoolSize(10, 4, 2, 20));
+        Assertions.assertEquals(12, HostRegistry.adminPoolSize(10, 50, 2, 20));
+        Assertions.assertEquals(20, HostRegistry.adminPoolSize(200, 0, 2, 20));
+        Assertions.assertEquals(1, HostRegistry.adminPoolSize(10, 0, 0, 0));
+    }
+
+    public static class CustomProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "onecx.operator.db.postgresql.hosts.second.jdbc-url", "jdbc:postgresql://localhost:5432/second",
+                    "onecx.operator.db.postgresql.hosts.second.username", "second_admin",
+                    "onecx.operator.db.postgresql.hosts.second.password", "second_password",
+                    "onecx.operator.db.postgresql.hosts.second.max-concurrent-reconciles", "1",
+                    "onecx.operator.db.postgresql.admin-pool.warm-up-size", "1");
+        }
+    }
+}
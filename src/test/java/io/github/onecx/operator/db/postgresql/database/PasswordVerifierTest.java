@@ -0,0 +1,36 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class PasswordVerifierTest {
+
+    private static final String SCRAM = "SCRAM-SHA-256$4096:c2FsdHNhbHRzYWx0c2FsdA==$"
+            + "I31kwUxpF8nxx1fnzoE/xUXSDBSHaR1urxQ4jGsZ+N0=:H0XnAu0qyrYyn/damzZHCj+SiPr1qmFGF3uzGlSY+Z8=";
+
+    private static final String MD5 = "md5abdbecd56d5fbd2cdaee3d0fa9e4f434";
+
+    @ParameterizedTest
+    @MethodSource("matchesParameters")
+    void matchesTest(String verifier, String user, String password, boolean result) {
+        Assertions.assertEquals(result, PasswordVerifier.matches(verifier, user, password.getBytes()));
+    }
+
+    private static Stream<Arguments> matchesParameters() {
+        return Stream.of(
+                Arguments.of(SCRAM, "test_user", "test_password", true),
+                Arguments.of(SCRAM, "test_user", "test_password2", false),
+                Arguments.of(MD5, "test_user", "test_password", true),
+                Arguments.of(MD5, "test_user2", "test_password", false),
+                Arguments.of("SCRAM-SHA-256$broken", "test_user", "test_password", false),
+                Arguments.of(null, "test_user", "test_password", false),
+                Arguments.of("plain", "test_user", "plain", false));
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.SslMode;
+
+@QuarkusTest
+@TestProfile(ReactiveDatabaseServiceTest.CustomProfile.class)
+class ReactiveDatabaseServiceTest {
+
+    @Inject
+    Instance<DatabaseEngine> databaseEngine;
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @Test
+    void updateTest() throws Exception {
+        Assertions.assertInstanceOf(ReactiveDatabaseService.class, databaseEngine.get());
+
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("reactive_database");
+        spec.setUser("reactive_user");
+        spec.setHost(defaultHost);
+        spec.setSchema("reactive_schema");
+        spec.setUserSearchPath("reactive_schema,public");
+        spec.setExtensions(List.of("seg", "cube"));
+
+        DatabaseHost host = hostRegistry.host(defaultHost);
+        databaseEngine.get().update("reactive-1", host, spec, "reactive_password".getBytes());
+        double hits = userPoolHits();
+        // second update only verifies with the cached user pool
+        databaseEngine.get().update("reactive-2", host, spec, "reactive_password".getBytes());
+        Assertions.assertEquals(hits + 1, userPoolHits());
+
+        CatalogSnapshot catalog = host.getCatalog();
+        catalog.refresh();
+        Assertions.assertEquals("reactive_user", catalog.databaseOwner("reactive_database"));
+        Assertions.assertTrue(CatalogSnapshot.searchPathEquals("reactive_schema,public",
+                catalog.userSearchPath("reactive_user")));
+        catalog.invalidate("reactive_database");
+
+        spec.setExtensions(List.of("unknown_extension"));
+        Assertions.assertThrows(ExtensionNotAvailableException.class,
+                () -> databaseEngine.get().update("reactive-3", host, spec, "reactive_password".getBytes()));
+    }
+
+    @Test
+    void connectOptionsTest() {
+        PgConnectOptions options = ReactiveDatabaseService.connectOptions(
+                "jdbc:postgresql://localhost:32769/quarkus?loggerLevel=OFF&connectTimeout=5&ApplicationName=operator");
+        Assertions.assertEquals("localhost", options.getHost());
+        Assertions.assertEquals(32769, options.getPort());
+        Assertions.assertEquals("quarkus", options.getDatabase());
+        Assertions.assertEquals(SslMode.PREFER, options.getSslMode());
+        Assertions.assertEquals(5000, options.getConnectTimeout());
+        Assertions.assertEquals("operator", options.getProperties().get("application_name"));
+
+        options = ReactiveDatabaseService.connectOptions(
+                "jdbc:postgresql://db:5432/postgres?sslmode=verify-full&sslrootcert=/certs/root.crt");
+        Assertions.assertEquals(SslMode.VERIFY_FULL, options.getSslMode());
+        Assertions.assertEquals(List.of("/certs/root.crt"), options.getPemTrustOptions().getCertPaths());
+        Assertions.assertEquals("HTTPS", options.getHostnameVerificationAlgorithm());
+
+        options = ReactiveDatabaseService.connectOptions("jdbc:postgresql://db:5432/postgres?sslmode=require");
+        Assertions.assertEquals(SslMode.REQUIRE, options.getSslMode());
+        Assertions.assertTrue(options.isTrustAll());
+
+        var ex = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ReactiveDatabaseService.connectOptions("jdbc:postgresql://db:5432/postgres?sslmode=verify-ca"));
+        Assertions.assertTrue(ex.getMessage().contains("sslrootcert"), ex.getMessage());
+        ex = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ReactiveDatabaseService.connectOptions("jdbc:postgresql://db:5432/postgres?sslcert=/certs/user.crt"));
+        Assertions.assertEquals("JDBC URL parameter 'sslcert' is not supported by the reactive engine", ex.getMessage());
+    }
+
+    @Test
+    void reactiveUrlTest() {
+        Assertions.assertEquals("postgresql://localhost:32769/quarkus",
+                ReactiveDatabaseService.reactiveUrl("jdbc:postgresql://localhost:32769/quarkus?loggerLevel=OFF"));
+        Assertions.assertEquals("postgresql://localhost:32769/quarkus",
+                ReactiveDatabaseService.reactiveUrl("jdbc:postgresql://localhost:32769/quarkus"));
+    }
+
+    private double userPoolHits() {
+        return registry.counter("onecx.operator.db.postgresql.user.datasource.cache", "result", "hit").count();
+    }
+
+    public static class CustomProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(DatabaseEngine.ENGINE, "reactive");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class SqlBatchTest {
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Test
+    void executeBatchTest() throws Exception {
+        List<String> executed = new ArrayList<>();
+        List<SqlStatement> recorded = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            new SqlBatch("batch", true, (type, start, end, size, success) -> recorded.add(type))
+                    .add(SqlStatement.CREATE_USER, "CREATE USER batch_user_1", () -> executed.add("user"),
+                            "Create user '{}'", "batch_user_1")
+                    .add(SqlStatement.CREATE_SCHEMA, "CREATE SCHEMA IF NOT EXISTS batch_schema_1 AUTHORIZATION batch_user_1",
+                            () -> executed.add("schema"), "Create schema '{}'", "batch_schema_1")
+                    .execute(statement);
+
+            Assertions.assertEquals(List.of("user", "schema"), executed);
+            Assertions.assertEquals(List.of(SqlStatement.CREATE_USER, SqlStatement.CREATE_SCHEMA), recorded);
+            Assertions.assertTrue(statement.executeQuery("SELECT true FROM pg_user WHERE usename = 'batch_user_1'").next());
+        }
+    }
+
+    @Test
+    void executeBatchErrorTest() throws Exception {
+        List<String> executed = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            SqlBatch batch = new SqlBatch("batch", true, SqlBatch.Recorder.NONE)
+                    .add(SqlStatement.CREATE_USER, "CREATE USER batch_user_2", () -> executed.add("user"),
+                            "Create user '{}'", "batch_user_2")
+                    .add(SqlStatement.CREATE_USER, "CREATE USER batch_user_2", () -> executed.add("user"),
+                            "Create user '{}'", "batch_user_2");
+
+            SQLException ex = Assertions.assertThrows(SQLException.class, () -> batch.execute(statement));
+            Assertions.assertFalse(ex.getMessage().contains("Batch entry"));
+            Assertions.assertTrue(executed.isEmpty());
+            Assertions.assertFalse(statement.executeQuery("SELECT true FROM pg_user WHERE usename = 'batch_user_2'").next());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@TestProfile(TemplateDatabasesTest.CustomProfile.class)
+class TemplateDatabasesTest {
+
+    @Inject
+    Instance<DatabaseEngine> databaseEngine;
+
+    @Inject
+    TemplateDatabases templates;
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @Test
+    void templateTest() throws Exception {
+        Assertions.assertTrue(templates.managed("template_extensions"));
+        Assertions.assertFalse(templates.managed("template0"));
+        Assertions.assertFalse(templates.managed(null));
+
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("template_database");
+        spec.setUser("template_user");
+        spec.setHost(defaultHost);
+        spec.setTemplate("template_extensions");
+        spec.setExtensions(List.of("seg"));
+
+        DatabaseHost host = hostRegistry.host(defaultHost);
+        databaseEngine.get().update("template-1", host, spec, "template_password".getBytes());
+
+        CatalogSnapshot catalog = host.getCatalog();
+        catalog.refresh();
+        Assertions.assertEquals("template_user", catalog.databaseOwner("template_database"));
+        Assertions.assertNotNull(catalog.databaseOwner("template_extensions"));
+
+        // the extensions of the template are copied, also the extension which is not in the spec
+        databaseEngine.get().update("template-2", host, spec, "template_password".getBytes());
+        Map<String, String> extensions = catalog.extensions("template_database");
+        Assertions.assertNotNull(extensions);
+        Assertions.assertTrue(extensions.containsKey("seg"), "Extensions: " + extensions);
+        Assertions.assertTrue(extensions.containsKey("cube"), "Extensions: " + extensions);
+    }
+
+    @Test
+    void createDatabaseSqlTest() {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("db1");
+        spec.setUser("user1");
+        Assertions.assertEquals("CREATE DATABASE db1 OWNER 'user1'",
+                AbstractDatabaseEngine.createDatabaseSql(spec, null));
+
+        spec.setTemplate("template1");
+        Assertions.assertEquals("CREATE DATABASE db1 OWNER 'user1' TEMPLATE template1",
+                AbstractDatabaseEngine.createDatabaseSql(spec, null));
+        Assertions.assertEquals("CREATE DATABASE db1 OWNER 'user1' TEMPLATE template1 STRATEGY FILE_COPY",
+                AbstractDatabaseEngine.createDatabaseSql(spec, CreateStrategy.of("file-copy")));
+
+        spec.setTemplate(null);
+        Assertions.assertEquals("CREATE DATABASE db1 OWNER 'user1' STRATEGY WAL_LOG",
+                AbstractDatabaseEngine.createDatabaseSql(spec, CreateStrategy.of("wal-log")));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CreateStrategy.of("copy"));
+    }
+
+    @Test
+    void invalidCreateStrategyTest() throws Exception {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("strategy_database");
+        spec.setUser("strategy_user");
+        spec.setHost(defaultHost);
+        spec.setCreateStrategy("copy");
+
+        DatabaseHost host = hostRegistry.host(defaultHost);
+        var ex = Assertions.assertThrows(InvalidSpecException.class,
+                () -> databaseEngine.get().update("strategy-1", host, spec, "strategy_password".getBytes()));
+        Assertions.assertEquals(ErrorClass.PERMANENT, ErrorClass.classify(ex));
+        Assertions.assertNull(host.getCatalog().databaseOwner("strategy_database"));
+    }
+
+    public static class CustomProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("onecx.operator.db.postgresql.templates.template_extensions.extensions", "seg,cube");
+        }
+    }
+}
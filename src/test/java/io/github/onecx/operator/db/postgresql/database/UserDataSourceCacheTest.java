@@ -0,0 +1,72 @@
+package io.github.onecx.operator.db.postgresql.database;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class UserDataSourceCacheTest {
+
+    @Inject
+    UserDataSourceCache cache;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    HostRegistry hostRegistry;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String defaultHost;
+
+    @Test
+    void acquireAndInvalidateTest() throws Exception {
+        DatabaseSpec spec = new DatabaseSpec();
+        spec.setName("cache_database");
+        spec.setUser("cache_user");
+
+        DatabaseSpec other = new DatabaseSpec();
+        other.setName("cache_database_other");
+        other.setUser("cache_user");
+
+        DatabaseHost host = hostRegistry.host(defaultHost);
+        int size = cache.size();
+        double hits = hits();
+
+        cache.acquire(host, spec, "password".getBytes()).close();
+        Assertions.assertEquals(size + 1, cache.size());
+
+        cache.acquire(host, spec, "password".getBytes()).close();
+        Assertions.assertEquals(size + 1, cache.size());
+        Assertions.assertEquals(hits + 1, hits());
+
+        cache.acquire(host, spec, "new_password".getBytes()).close();
+        Assertions.assertEquals(size + 1, cache.size());
+        Assertions.assertEquals(hits + 1, hits());
+
+        cache.acquire(host, other, "password".getBytes()).close();
+        Assertions.assertEquals(size + 2, cache.size());
+
+        cache.invalidate(host.getName(), spec.getName());
+        cache.invalidate(host.getName(), other.getName());
+        Assertions.assertEquals(size, cache.size());
+    }
+
+    @Test
+    void fingerprintTest() {
+        Assertions.assertEquals(UserDataSourceCache.fingerprint("password".getBytes()),
+                UserDataSourceCache.fingerprint("password".getBytes()));
+        Assertions.assertNotEquals(UserDataSourceCache.fingerprint("password".getBytes()),
+                UserDataSourceCache.fingerprint("password2".getBytes()));
+    }
+
+    private double hits() {
+        return registry.counter("onecx.operator.db.postgresql.user.datasource.cache", "result", "hit").count();
+    }
+}
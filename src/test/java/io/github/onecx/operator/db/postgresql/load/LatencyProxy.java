@@ -0,0 +1,134 @@
+package io.github.onecx.operator.db.postgresql.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+
+/**
+ * TCP proxy which delays every chunk by the configured one-way latency. The bandwidth is not limited,
+ * the round trip of a request and response is twice the latency.
+ */
+public class LatencyProxy implements AutoCloseable {
+
+    private static final Logger log = Logger.getLogger(LatencyProxy.class);
+
+    private static final byte[] EOF = new byte[0];
+
+    private final String targetHost;
+
+    private final int targetPort;
+
+    private final long latency;
+
+    private ServerSocket serverSocket;
+
+    public LatencyProxy(String targetHost, int targetPort, Duration latency) {
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        this.latency = latency.toNanos();
+    }
+
+    /**
+     * Start the proxy on a free local port.
+     *
+     * @return the proxy port
+     */
+    public int start() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        thread("latency-proxy-accept", this::accept);
+        log.infof("Latency proxy port %s -> %s:%s latency %s ms", serverSocket.getLocalPort(), targetHost, targetPort,
+                TimeUnit.NANOSECONDS.toMillis(latency));
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                Socket target = new Socket(targetHost, targetPort);
+                client.setTcpNoDelay(true);
+                target.setTcpNoDelay(true);
+                pipe(client, target);
+                pipe(target, client);
+            } catch (IOException ex) {
+                if (!serverSocket.isClosed()) {
+                    log.error("Error accept proxy connection", ex);
+                }
+            }
+        }
+    }
+
+    private void pipe(Socket from, Socket to) throws IOException {
+        InputStream in = from.getInputStream();
+        OutputStream out = to.getOutputStream();
+        BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+        thread("latency-proxy-read", () -> {
+            byte[] buffer = new byte[16384];
+            try {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    queue.add(new Chunk(System.nanoTime() + latency, Arrays.copyOf(buffer, read)));
+                }
+            } catch (IOException ex) {
+                // connection closed
+            }
+            queue.add(new Chunk(System.nanoTime() + latency, EOF));
+        });
+        thread("latency-proxy-write", () -> {
+            try {
+                while (true) {
+                    Chunk chunk = queue.take();
+                    long wait = chunk.deadline - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    if (chunk.data == EOF) {
+                        break;
+                    }
+                    out.write(chunk.data);
+                    out.flush();
+                }
+            } catch (IOException ex) {
+                // connection closed
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            close(from);
+            close(to);
+        });
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ex) {
+            // ignore
+        }
+    }
+
+    private static void thread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private record Chunk(long deadline, byte[] data) {
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.onecx.operator.db.postgresql.load;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.quarkus.test.common.DevServicesContext;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Load test environment: Kubernetes mock server in CRUD mode and a latency proxy in front of the
+ * PostgreSQL dev service. The latency is set with the {@code load-test.latency} system property
+ * (default {@code PT0.005S}).
+ */
+public class LoadTestResource implements QuarkusTestResourceLifecycleManager, DevServicesContext.ContextAware {
+
+    private static final Pattern JDBC_URL = Pattern.compile("(jdbc:postgresql://)([^:/]+)(?::(\\d+))?(/.*)");
+
+    private Map<String, String> devServicesProperties = Map.of();
+
+    private KubernetesMockServer server;
+
+    private LatencyProxy proxy;
+
+    @Override
+    public void setIntegrationTestContext(DevServicesContext context) {
+        devServicesProperties = context.devServicesProperties();
+    }
+
+    @Override
+    public Map<String, String> start() {
+        Map<String, String> config = new HashMap<>();
+
+        server = new KubernetesMockServer(new io.fabric8.mockwebserver.Context(), new MockWebServer(), new HashMap<>(),
+                new KubernetesCrudDispatcher(List.of()), false);
+        server.init();
+        try (KubernetesClient client = server.createClient()) {
+            config.put("quarkus.kubernetes-client.api-server-url", client.getConfiguration().getMasterUrl());
+        }
+        config.put("quarkus.kubernetes-client.trust-certs", "true");
+        config.put("quarkus.kubernetes-client.namespace", "load-test");
+
+        String jdbcUrl = devServicesProperties.get("quarkus.datasource.jdbc.url");
+        Matcher matcher = jdbcUrl != null ? JDBC_URL.matcher(jdbcUrl) : null;
+        if (matcher == null || !matcher.matches()) {
+            throw new IllegalStateException("Load test requires the PostgreSQL dev service, JDBC URL: " + jdbcUrl);
+        }
+        Duration latency = Duration.parse(System.getProperty("load-test.latency", "PT0.005S"));
+        proxy = new LatencyProxy(matcher.group(2), matcher.group(3) != null ? Integer.parseInt(matcher.group(3)) : 5432,
+                latency);
+        try {
+            int port = proxy.start();
+            config.put("quarkus.datasource.jdbc.url", matcher.group(1) + "localhost:" + port + matcher.group(4));
+        } catch (Exception ex) {
+            throw new IllegalStateException("Error start latency proxy", ex);
+        }
+
+        return config;
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.destroy();
+        }
+        if (proxy != null) {
+            try {
+                proxy.close();
+            } catch (Exception ex) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.onecx.operator.db.postgresql.load;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+import io.github.onecx.operator.db.postgresql.PostgreSQLDatabase;
+import io.javaoperatorsdk.operator.Operator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Convergence of {@code load-test.crs} database resources (default 100) against the PostgreSQL dev
+ * service behind the latency proxy. Run with {@code mvn test -Pload-test -Dload-test.crs=10000}.
+ */
+@Tag("load")
+@QuarkusTest
+@QuarkusTestResource(value = LoadTestResource.class, restrictToAnnotatedClass = true)
+class PostgreSQLLoadTest {
+
+    private static final Logger log = Logger.getLogger(PostgreSQLLoadTest.class);
+
+    @Inject
+    Operator operator;
+
+    @Inject
+    KubernetesClient client;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "onecx.operator.db.postgresql.host")
+    String host;
+
+    @Test
+    void convergenceTest() {
+        int crs = Integer.getInteger("load-test.crs", 100);
+        Duration timeout = Duration.parse(System.getProperty("load-test.timeout", "PT10M"));
+        String namespace = client.getNamespace();
+        Base64.Encoder encoder = Base64.getEncoder();
+
+        operator.start();
+
+        double reconciles = reconciles();
+        long statements = statements();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < crs; i++) {
+            Secret secret = new Secret();
+            secret.setMetadata(new ObjectMetaBuilder().withName("load-secret-" + i).withNamespace(namespace).build());
+            secret.setData(Map.of("pk", encoder.encodeToString(("load_password_" + i).getBytes())));
+            client.resource(secret).create();
+
+            DatabaseSpec spec = new DatabaseSpec();
+            spec.setHost(host);
+            spec.setName("load_database_" + i);
+            spec.setUser("load_user_" + i);
+            spec.setSchema("load_schema_" + i);
+            spec.setPasswordKey("pk");
+            spec.setPasswordSecrets("load-secret-" + i);
+            PostgreSQLDatabase database = new PostgreSQLDatabase();
+            database.setMetadata(new ObjectMetaBuilder().withName("load-" + i).withNamespace(namespace).build());
+            database.setSpec(spec);
+            client.resource(database).create();
+        }
+        long created = System.nanoTime();
+        log.infof("Created %s database resources and secrets in %s ms", crs, millis(created - start));
+
+        await().atMost(timeout.toSeconds(), SECONDS).pollInterval(1, SECONDS).untilAsserted(() -> {
+            long converged = client.resources(PostgreSQLDatabase.class).inNamespace(namespace).list().getItems()
+                    .stream()
+                    .filter(db -> db.getStatus() != null && "CREATED".equals(db.getStatus().getStatus()))
+                    .count();
+            log.infof("Converged %s/%s database resources", converged, crs);
+            Assertions.assertEquals(crs, converged);
+        });
+        long end = System.nanoTime();
+
+        double seconds = (end - start) / 1e9;
+        double reconciled = reconciles() - reconciles;
+        log.infof("Load test: %s database resources, time to all CREATED %s ms, %.1f reconciles/s, "
+                + "%.1f SQL statements per database resource", crs, millis(end - start), reconciled / seconds,
+                (statements() - statements) / (double) crs);
+    }
+
+    private double reconciles() {
+        return registry.find("onecx.operator.db.postgresql.reconcile").tag("outcome", "success").counters()
+                .stream().mapToDouble(Counter::count).sum();
+    }
+
+    private long statements() {
+        return registry.find("onecx.operator.db.postgresql.sql").timers()
+                .stream().mapToLong(Timer::count).sum();
+    }
+
+    private static long millis(long nanos) {
+        return Duration.ofNanos(nanos).toMillis();
+    }
+}
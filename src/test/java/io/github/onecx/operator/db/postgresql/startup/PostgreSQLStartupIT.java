@@ -0,0 +1,49 @@
+package io.github.onecx.operator.db.postgresql.startup;
+
+import static io.restassured.RestAssured.given;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusIntegrationTest;
+
+/**
+ * Startup benchmark of the packaged operator, reports the time from the process start to the first
+ * finished reconcile. Runs against the JVM build with {@code mvn verify -Pstartup-benchmark} and
+ * against the native build with {@code mvn verify -Pnative}.
+ */
+@QuarkusIntegrationTest
+@QuarkusTestResource(value = StartupBenchmarkResource.class, restrictToAnnotatedClass = true)
+class PostgreSQLStartupIT {
+
+    private static final Logger log = Logger.getLogger(PostgreSQLStartupIT.class);
+
+    private static final Pattern FIRST_RECONCILE = Pattern.compile(
+            "onecx_operator_db_postgresql_startup_first_reconcile_seconds\\{image=\"(\\w+)\",?} ([0-9.E+-]+)");
+
+    @Test
+    void timeToFirstReconcileTest() {
+        Matcher result = await().atMost(60, SECONDS).pollInterval(500, MILLISECONDS)
+                .until(PostgreSQLStartupIT::firstReconcile, Optional::isPresent)
+                .orElseThrow();
+
+        double seconds = Double.parseDouble(result.group(2));
+        log.infof("Startup benchmark: time to first reconcile %.0f ms (%s)", seconds * 1000, result.group(1));
+        Assertions.assertTrue(seconds > 0);
+    }
+
+    private static Optional<Matcher> firstReconcile() {
+        String metrics = given().get("/q/metrics").then().statusCode(200).extract().asString();
+        Matcher matcher = FIRST_RECONCILE.matcher(metrics);
+        return matcher.find() ? Optional.of(matcher) : Optional.empty();
+    }
+}
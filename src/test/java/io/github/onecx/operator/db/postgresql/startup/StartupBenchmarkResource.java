@@ -0,0 +1,93 @@
+package io.github.onecx.operator.db.postgresql.startup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.github.onecx.operator.db.postgresql.DatabaseSpec;
+import io.github.onecx.operator.db.postgresql.PostgreSQLDatabase;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Startup benchmark environment: Kubernetes mock server in CRUD mode with the generated CRD, one
+ * database resource and its secret. The resources exist before the operator starts, the first
+ * reconcile includes the informer sync and the first admin connection.
+ */
+public class StartupBenchmarkResource implements QuarkusTestResourceLifecycleManager {
+
+    static final String NAMESPACE = "startup-benchmark";
+
+    private static final String HOST = "startup";
+
+    private KubernetesMockServer server;
+
+    @Override
+    public Map<String, String> start() {
+        server = new KubernetesMockServer(new io.fabric8.mockwebserver.Context(), new MockWebServer(), new HashMap<>(),
+                new KubernetesCrudDispatcher(List.of()), false);
+        server.init();
+        try (KubernetesClient client = server.createClient()) {
+            try (InputStream crd = Files.newInputStream(crd())) {
+                client.apiextensions().v1().customResourceDefinitions().load(crd).create();
+            }
+
+            Secret secret = new Secret();
+            secret.setMetadata(new ObjectMetaBuilder().withName("startup-secret").withNamespace(NAMESPACE).build());
+            secret.setData(Map.of("pk", Base64.getEncoder().encodeToString("startup_password".getBytes())));
+            client.resource(secret).create();
+
+            DatabaseSpec spec = new DatabaseSpec();
+            spec.setHost(HOST);
+            spec.setName("startup_database");
+            spec.setUser("startup_user");
+            spec.setSchema("startup_schema");
+            spec.setPasswordKey("pk");
+            spec.setPasswordSecrets("startup-secret");
+            PostgreSQLDatabase database = new PostgreSQLDatabase();
+            database.setMetadata(new ObjectMetaBuilder().withName("startup-1").withNamespace(NAMESPACE).build());
+            database.setSpec(spec);
+            client.resource(database).create();
+
+            Map<String, String> config = new HashMap<>();
+            config.put("quarkus.kubernetes-client.api-server-url", client.getConfiguration().getMasterUrl());
+            config.put("quarkus.kubernetes-client.trust-certs", "true");
+            config.put("quarkus.kubernetes-client.namespace", NAMESPACE);
+            config.put("onecx.operator.db.postgresql.host", HOST);
+            config.put("quarkus.otel.exporter.otlp.enabled", "false");
+            return config;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Error create startup benchmark resources", ex);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.destroy();
+        }
+    }
+
+    /**
+     * Returns the CRD generated by the operator SDK in {@code target/kubernetes}.
+     */
+    private static Path crd() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of("target", "kubernetes"))) {
+            return files.filter(f -> f.getFileName().toString().startsWith("postgresqldatabases.")
+                    && f.getFileName().toString().endsWith("-v1.yml"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Generated CRD not found in target/kubernetes"));
+        }
+    }
+}